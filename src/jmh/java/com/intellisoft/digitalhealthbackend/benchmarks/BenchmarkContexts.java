@@ -0,0 +1,154 @@
+package com.intellisoft.digitalhealthbackend.benchmarks;
+
+import com.intellisoft.digitalhealthbackend.DigitalHealthBackendIntellisoftApplication;
+import com.intellisoft.digitalhealthbackend.enums.Gender;
+import com.intellisoft.digitalhealthbackend.models.Encounter;
+import com.intellisoft.digitalhealthbackend.models.Observation;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
+import com.intellisoft.digitalhealthbackend.repository.ObservationRepository;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** Application contexts and seed data shared by the benchmarks. */
+final class BenchmarkContexts {
+    static final long FIRST_SEEDED_IDENTIFIER = 10_000_000L;
+    static final LocalDate SEEDED_BIRTH_DATE = LocalDate.of(1985, 6, 15);
+
+    private BenchmarkContexts() {}
+
+    /**
+     * Boots the application without a web server against its own in-memory H2 database. The
+     * properties are passed as command line arguments so that they override application-test.yml.
+     */
+    static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        return run(
+                WebApplicationType.NONE,
+                "jdbc:h2:mem:"
+                        + databaseName
+                        + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;DATABASE_TO_LOWER=TRUE",
+                properties);
+    }
+
+    /**
+     * Boots the application without a web server against a fresh H2 file database under {@code
+     * target/jmh-h2}, so that commits pay for file I/O as they do outside the benchmarks.
+     */
+    static ConfigurableApplicationContext startOnFile(String databaseName, String... properties) {
+        return run(WebApplicationType.NONE, freshFileDatabase(databaseName), properties);
+    }
+
+    /** Like {@link #startOnFile}, with Tomcat on a random port. */
+    static ConfigurableApplicationContext startServer(String databaseName, String... properties) {
+        return run(
+                WebApplicationType.SERVLET,
+                freshFileDatabase(databaseName),
+                Stream.concat(Stream.of("server.port=0"), Stream.of(properties))
+                        .toArray(String[]::new));
+    }
+
+    private static String freshFileDatabase(String databaseName) {
+        Path directory = Path.of("target", "jmh-h2");
+        try {
+            Files.createDirectories(directory);
+            for (String suffix : List.of(".mv.db", ".trace.db")) {
+                Files.deleteIfExists(directory.resolve(databaseName + suffix));
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return "jdbc:h2:file:"
+                + directory.toAbsolutePath().resolve(databaseName)
+                + ";DATABASE_TO_LOWER=TRUE";
+    }
+
+    private static ConfigurableApplicationContext run(
+            WebApplicationType webApplicationType, String url, String... properties) {
+        return new SpringApplicationBuilder(DigitalHealthBackendIntellisoftApplication.class)
+                .web(webApplicationType)
+                .profiles("test")
+                .run(
+                        Stream.concat(
+                                        Stream.of(
+                                                "spring.datasource.url=" + url,
+                                                "spring.jpa.properties.hibernate"
+                                                        + ".generate_statistics=false"),
+                                        Stream.of(properties))
+                                .map(property -> "--" + property)
+                                .toArray(String[]::new));
+    }
+
+    /**
+     * Seeds {@code patients} patients with identifiers from {@link #FIRST_SEEDED_IDENTIFIER}, each
+     * with daily encounters carrying a handful of observations, and returns the encounter ids.
+     */
+    static List<Long> seed(
+            ConfigurableApplicationContext context,
+            int patients,
+            int encountersPerPatient,
+            int observationsPerEncounter) {
+        PatientRepository patientRepository = context.getBean(PatientRepository.class);
+        EncounterRepository encounterRepository = context.getBean(EncounterRepository.class);
+        ObservationRepository observationRepository = context.getBean(ObservationRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        List<Long> encounterIds = new ArrayList<>(patients * encountersPerPatient);
+        LocalDateTime firstVisit = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int p = 0; p < patients; p++) {
+            long identifier = FIRST_SEEDED_IDENTIFIER + p;
+            transactionTemplate.executeWithoutResult(
+                    status -> {
+                        Patient patient =
+                                patientRepository.save(
+                                        Patient.builder()
+                                                .identifier(identifier)
+                                                .givenName("Given")
+                                                .familyName("Family")
+                                                .gender(
+                                                        identifier % 2 == 0
+                                                                ? Gender.FEMALE
+                                                                : Gender.MALE)
+                                                .birthDate(SEEDED_BIRTH_DATE)
+                                                .build());
+                        List<Encounter> encounters = new ArrayList<>(encountersPerPatient);
+                        List<Observation> observations = new ArrayList<>();
+                        for (int e = 0; e < encountersPerPatient; e++) {
+                            LocalDateTime start = firstVisit.plusDays(e);
+                            Encounter encounter =
+                                    Encounter.builder()
+                                            .patient(patient)
+                                            .start(start)
+                                            .end(start.plusMinutes(30))
+                                            .encounterDate(start.toLocalDate())
+                                            .build();
+                            encounters.add(encounter);
+                            for (int o = 0; o < observationsPerEncounter; o++) {
+                                observations.add(
+                                        Observation.builder()
+                                                .patient(patient)
+                                                .encounter(encounter)
+                                                .code("OBS-" + o)
+                                                .value(String.valueOf(60 + o))
+                                                .effectiveDateTime(start.plusMinutes(o))
+                                                .build());
+                            }
+                        }
+                        encounterRepository.saveAll(encounters);
+                        observationRepository.saveAll(observations);
+                        encounters.forEach(encounter -> encounterIds.add(encounter.getId()));
+                    });
+        }
+        return encounterIds;
+    }
+}
@@ -0,0 +1,77 @@
+package com.intellisoft.digitalhealthbackend.benchmarks;
+
+import com.intellisoft.digitalhealthbackend.utils.DateParser;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-call cost of request date parsing: the former {@code PatientServiceImpl.formatDate} /
+ * {@code formatDateTime} (a new formatter per call, exceptions for bad input) against {@link
+ * DateParser}. Run with {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+
+    @Param({"valid", "invalid"})
+    public String input;
+
+    private String date;
+    private String dateTime;
+
+    @Setup
+    public void setUp() {
+        boolean valid = "valid".equals(input);
+        date = valid ? "1996-08-09" : "1996-08-9x";
+        dateTime = valid ? "2025-11-01 10:30:15" : "2025-11-01T10:30:15";
+    }
+
+    @Benchmark
+    public Object legacyDate() {
+        try {
+            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+            formatter.setLenient(false);
+            return formatter.parse(date.trim());
+        } catch (ParseException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object dateParserDate() {
+        return DateParser.tryParseDate(date);
+    }
+
+    @Benchmark
+    public Object legacyDateTime() {
+        try {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+            return LocalDateTime.parse(dateTime, formatter);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object dateParserDateTime() {
+        return DateParser.tryParseDateTime(dateTime);
+    }
+}
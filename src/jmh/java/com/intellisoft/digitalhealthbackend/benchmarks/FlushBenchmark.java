@@ -0,0 +1,93 @@
+package com.intellisoft.digitalhealthbackend.benchmarks;
+
+import com.intellisoft.digitalhealthbackend.models.Observation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Cost of a flush in a session holding {@code managed} observations, with none or one of them
+ * changed: the dirty check visits every managed entity, by snapshot comparison or, with bytecode
+ * enhancement, by asking the entity's own dirty tracker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlushBenchmark {
+    private static final int PATIENTS = 100;
+    private static final int ENCOUNTERS_PER_PATIENT = 20;
+    private static final int OBSERVATIONS_PER_ENCOUNTER = 5;
+
+    @Param({"1000", "10000"})
+    private int managed;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private List<Observation> observations;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("flush");
+        BenchmarkContexts.seed(
+                context, PATIENTS, ENCOUNTERS_PER_PATIENT, OBSERVATIONS_PER_ENCOUNTER);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    /** A long transaction per iteration; the flushed updates are rolled back at its end. */
+    @Setup(Level.Iteration)
+    public void openSession() {
+        entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        observations =
+                entityManager
+                        .createQuery("SELECT o FROM Observation o ORDER BY o.id", Observation.class)
+                        .setMaxResults(managed)
+                        .getResultList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeSession() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** The dirty check alone: nothing changed, so nothing is written. */
+    @Benchmark
+    public EntityManager flushClean() {
+        entityManager.flush();
+        return entityManager;
+    }
+
+    @Benchmark
+    public Observation flushOneChange() {
+        Observation observation = observations.get(next++ % observations.size());
+        observation.setValue(String.valueOf(next));
+        entityManager.flush();
+        return observation;
+    }
+}
@@ -0,0 +1,105 @@
+package com.intellisoft.digitalhealthbackend.benchmarks;
+
+import com.intellisoft.digitalhealthbackend.enums.Gender;
+import com.intellisoft.digitalhealthbackend.models.Encounter;
+import com.intellisoft.digitalhealthbackend.models.Observation;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
+import com.intellisoft.digitalhealthbackend.repository.ObservationRepository;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Observation inserts per second through {@link ObservationRepository}. A JDBC batch size of 1
+ * reproduces the old one-statement-per-row behaviour of IDENTITY ids; 50 is the pooled-sequence
+ * configuration shipped in application.yml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObservationInsertBenchmark {
+    private static final int OBSERVATIONS_PER_INVOCATION = 500;
+
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private ObservationRepository observationRepository;
+    private TransactionTemplate transactionTemplate;
+    private Patient patient;
+    private Encounter encounter;
+
+    @Setup
+    public void setUp() {
+        context =
+                BenchmarkContexts.start(
+                        "observation-insert-" + jdbcBatchSize,
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        observationRepository = context.getBean(ObservationRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        patient =
+                context.getBean(PatientRepository.class)
+                        .save(
+                                Patient.builder()
+                                        .identifier(12345678L)
+                                        .givenName("Bench")
+                                        .familyName("Patient")
+                                        .gender(Gender.FEMALE)
+                                        .birthDate(LocalDate.of(1990, 1, 15))
+                                        .build());
+        encounter =
+                context.getBean(EncounterRepository.class)
+                        .save(
+                                Encounter.builder()
+                                        .patient(patient)
+                                        .start(LocalDateTime.now())
+                                        .encounterDate(LocalDate.now())
+                                        .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBSERVATIONS_PER_INVOCATION)
+    public int insertObservations() {
+        List<Observation> observations = new ArrayList<>(OBSERVATIONS_PER_INVOCATION);
+        LocalDateTime effectiveDateTime = LocalDateTime.now();
+        for (int i = 0; i < OBSERVATIONS_PER_INVOCATION; i++) {
+            observations.add(
+                    Observation.builder()
+                            .code("PULSE")
+                            .value(String.valueOf(60 + i % 40))
+                            .effectiveDateTime(effectiveDateTime)
+                            .patient(patient)
+                            .encounter(encounter)
+                            .build());
+        }
+        return transactionTemplate.execute(
+                status -> observationRepository.saveAll(observations).size());
+    }
+}
@@ -0,0 +1,93 @@
+package com.intellisoft.digitalhealthbackend.benchmarks;
+
+import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.service.PatientService;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Latency of the {@link PatientService} hot paths against an in-memory H2 database seeded with
+ * 1,000 patients, 20,000 encounters and 100,000 observations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientServiceBenchmark {
+    private static final int PATIENTS = 1_000;
+    private static final int ENCOUNTERS_PER_PATIENT = 20;
+    private static final int OBSERVATIONS_PER_ENCOUNTER = 5;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private List<Long> encounterIds;
+    private final AtomicLong nextIdentifier = new AtomicLong(20_000_000L);
+    private final ObservationWrapper observation =
+            ObservationWrapper.builder()
+                    .code("PULSE")
+                    .value("72")
+                    .effectiveDateTime("2025-11-01 10:30:00")
+                    .build();
+    private final String birthDate = BenchmarkContexts.SEEDED_BIRTH_DATE.toString();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("patient-service");
+        encounterIds =
+                BenchmarkContexts.seed(
+                        context, PATIENTS, ENCOUNTERS_PER_PATIENT, OBSERVATIONS_PER_ENCOUNTER);
+        patientService = context.getBean(PatientService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UniversalResponse createPatient() {
+        PatientWrapper patient =
+                PatientWrapper.builder()
+                        .identifier(nextIdentifier.getAndIncrement())
+                        .givenName("Bench")
+                        .familyName("Patient")
+                        .gender("FEMALE")
+                        .birthDate("1990-01-15")
+                        .build();
+        return patientService.createPatient(patient);
+    }
+
+    @Benchmark
+    public UniversalResponse addEncounterObservation() {
+        Long encounterId =
+                encounterIds.get(ThreadLocalRandom.current().nextInt(encounterIds.size()));
+        return patientService.addEncounterObservation(encounterId, observation);
+    }
+
+    @Benchmark
+    public UniversalResponse retrievePatientEncountersAndObservation() {
+        long identifier =
+                BenchmarkContexts.FIRST_SEEDED_IDENTIFIER
+                        + ThreadLocalRandom.current().nextInt(PATIENTS);
+        return patientService.retrievePatientEncountersAndObservation(
+                "Family", "Given", identifier, birthDate, 0, 10);
+    }
+}
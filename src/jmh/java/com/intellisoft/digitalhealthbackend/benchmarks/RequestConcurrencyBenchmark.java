@@ -0,0 +1,158 @@
+package com.intellisoft.digitalhealthbackend.benchmarks;
+
+import com.intellisoft.digitalhealthbackend.configurations.ApiKeyRegistry;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test of the HTTP API on platform threads (Tomcat limited to 32 workers, as in the prod
+ * profile) and on virtual threads (the virtual-threads profile), against an H2 file database
+ * seeded with 200 patients, 2,000 encounters and 10,000 observations.
+ *
+ * <p>Each operation sends {@code concurrency} requests at once, half adding an observation and half
+ * searching a patient's history, and completes when the slowest has been answered. The score is
+ * therefore the tail latency of a burst; {@code concurrency / score} is the throughput. The virtual
+ * mode needs a Java 21+ JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestConcurrencyBenchmark {
+    private static final int PATIENTS = 200;
+    private static final int ENCOUNTERS_PER_PATIENT = 10;
+    private static final int OBSERVATIONS_PER_ENCOUNTER = 5;
+    private static final int POOL_SIZE = 32;
+    private static final String API_KEY = "benchmark-key";
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"8", "32", "128"})
+    private int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private List<Long> encounterIds;
+    private HttpClient client;
+    private ExecutorService callers;
+    private String baseUrl;
+    private String apiKeyHeader;
+
+    @Setup
+    public void setUp() {
+        boolean virtual = threads.equals("virtual");
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException(
+                    "Virtual threads need Java 21+, running on " + Runtime.version());
+        }
+        List<String> properties = new ArrayList<>();
+        properties.add("server.tomcat.threads.max=" + POOL_SIZE);
+        properties.add("spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE);
+        // a client of its own, so that the load is not rate limited
+        properties.add("api.key.clients[0].id=benchmark");
+        properties.add("api.key.clients[0].key-sha256=" + ApiKeyRegistry.sha256Hex(API_KEY));
+        properties.add("api.key.clients[0].requests-per-second=1000000");
+        properties.add("api.key.clients[0].burst=1000000");
+        if (virtual) {
+            properties.add("spring.profiles.active=virtual-threads");
+        }
+        context =
+                BenchmarkContexts.startServer(
+                        "request-concurrency-" + threads, properties.toArray(String[]::new));
+        encounterIds =
+                BenchmarkContexts.seed(
+                        context, PATIENTS, ENCOUNTERS_PER_PATIENT, OBSERVATIONS_PER_ENCOUNTER);
+        baseUrl =
+                "http://localhost:"
+                        + context.getEnvironment().getProperty("local.server.port")
+                        + "/api/patients";
+        apiKeyHeader = context.getEnvironment().getProperty("api.key.header");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        callers = Executors.newFixedThreadPool(concurrency);
+    }
+
+    @TearDown
+    public void tearDown() {
+        callers.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = i % 2 == 0 ? addObservation() : searchHistory();
+            responses.add(callers.submit(() -> send(request)));
+        }
+        int bytes = 0;
+        for (Future<Integer> response : responses) {
+            bytes += response.get();
+        }
+        return bytes;
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 || !response.body().contains("\"status\":200")) {
+            throw new IllegalStateException(
+                    request.uri() + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body().length();
+    }
+
+    private HttpRequest addObservation() {
+        Long encounterId =
+                encounterIds.get(ThreadLocalRandom.current().nextInt(encounterIds.size()));
+        return request("/add/observations/" + encounterId)
+                .header("Content-Type", "application/json")
+                .POST(
+                        HttpRequest.BodyPublishers.ofString(
+                                "{\"code\":\"PULSE\",\"value\":\"72\","
+                                        + "\"effectiveDateTime\":\"2025-11-01 10:30:00\"}"))
+                .build();
+    }
+
+    private HttpRequest searchHistory() {
+        long identifier =
+                BenchmarkContexts.FIRST_SEEDED_IDENTIFIER
+                        + ThreadLocalRandom.current().nextInt(PATIENTS);
+        return request(
+                        "?family=Family&given=Given&identifier="
+                                + identifier
+                                + "&birthDate="
+                                + BenchmarkContexts.SEEDED_BIRTH_DATE)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header(apiKeyHeader, API_KEY);
+    }
+}
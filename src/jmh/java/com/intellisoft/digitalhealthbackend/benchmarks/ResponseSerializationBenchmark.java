@@ -0,0 +1,68 @@
+package com.intellisoft.digitalhealthbackend.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.service.PatientService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Jackson serialization of the encounters-and-observations {@link UniversalResponse}, using the
+ * application's own {@link ObjectMapper}. The response is loaded once, so only serialization is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    private static final int ENCOUNTERS = 50;
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private UniversalResponse response;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("response-serialization-" + pageSize);
+        BenchmarkContexts.seed(context, 1, ENCOUNTERS, 5);
+        objectMapper = context.getBean(ObjectMapper.class);
+        response =
+                context.getBean(PatientService.class)
+                        .retrievePatientEncountersAndObservation(
+                                "Family",
+                                "Given",
+                                BenchmarkContexts.FIRST_SEEDED_IDENTIFIER,
+                                BenchmarkContexts.SEEDED_BIRTH_DATE.toString(),
+                                0,
+                                pageSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
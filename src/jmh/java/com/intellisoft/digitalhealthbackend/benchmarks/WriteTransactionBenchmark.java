@@ -0,0 +1,169 @@
+package com.intellisoft.digitalhealthbackend.benchmarks;
+
+import com.intellisoft.digitalhealthbackend.dto.EncounterView;
+import com.intellisoft.digitalhealthbackend.dto.EncounterWrapper;
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
+import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import com.intellisoft.digitalhealthbackend.service.PatientService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Throughput of the {@link PatientService} write paths against an H2 file database seeded with 200
+ * patients and 2,000 encounters. Each operation also counts the transactions it committed: the
+ * {@code commits} secondary metric is reported in the same ops/s unit as the score, so {@code
+ * commits / score} is the number of commits per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteTransactionBenchmark {
+    private static final int PATIENTS = 200;
+    private static final int ENCOUNTERS_PER_PATIENT = 10;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private Statistics statistics;
+    private List<Long> patientIds;
+    private final AtomicLong nextIdentifier = new AtomicLong(30_000_000L);
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Commits {
+        public long commits;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            commits = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context =
+                BenchmarkContexts.startOnFile(
+                        "write-transaction",
+                        // measure the transactions, not the write limit
+                        "patient.load-shedding.enabled=false");
+        BenchmarkContexts.seed(context, PATIENTS, ENCOUNTERS_PER_PATIENT, 0);
+        PatientRepository patientRepository = context.getBean(PatientRepository.class);
+        patientIds =
+                LongStream.range(0, PATIENTS)
+                        .map(p -> BenchmarkContexts.FIRST_SEEDED_IDENTIFIER + p)
+                        .mapToObj(
+                                identifier ->
+                                        patientRepository
+                                                .findByIdentifier(identifier)
+                                                .orElseThrow()
+                                                .getId())
+                        .toList();
+        patientService = context.getBean(PatientService.class);
+        statistics =
+                context.getBean(EntityManagerFactory.class)
+                        .unwrap(SessionFactory.class)
+                        .getStatistics();
+        // only the transaction counters are read; BenchmarkContexts turns statistics off
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UniversalResponse updatePatient(Commits commits) {
+        int patient = randomPatient();
+        long identifier = BenchmarkContexts.FIRST_SEEDED_IDENTIFIER + patient;
+        PatientWrapper update =
+                PatientWrapper.builder()
+                        .identifier(identifier)
+                        .givenName("Given")
+                        .familyName("Family")
+                        .gender(identifier % 2 == 0 ? "FEMALE" : "MALE")
+                        .birthDate(BenchmarkContexts.SEEDED_BIRTH_DATE.toString())
+                        .build();
+        return counted(
+                commits, () -> patientService.updatePatient(patientIds.get(patient), update));
+    }
+
+    @Benchmark
+    public UniversalResponse addAndEndEncounter(Commits commits) {
+        Long patientId = patientIds.get(randomPatient());
+        EncounterWrapper visit =
+                EncounterWrapper.builder()
+                        .patient(patientId)
+                        .encounterDate("2025-11-01")
+                        .start("2025-11-01 09:00:00")
+                        .build();
+        return counted(
+                commits,
+                () -> {
+                    EncounterView encounter =
+                            (EncounterView)
+                                    patientService.addPatientEncounters(patientId, visit).data();
+                    return patientService.endPatientEncounter(
+                            encounter.id(), "2025-11-01 09:30:00");
+                });
+    }
+
+    @Benchmark
+    public UniversalResponse createAndDeletePatient(Commits commits) {
+        return counted(
+                commits,
+                () -> {
+                    PatientView patient =
+                            (PatientView)
+                                    patientService
+                                            .createPatient(
+                                                    PatientWrapper.builder()
+                                                            .identifier(
+                                                                    nextIdentifier
+                                                                            .getAndIncrement())
+                                                            .givenName("Bench")
+                                                            .familyName("Patient")
+                                                            .gender("FEMALE")
+                                                            .birthDate("1990-01-15")
+                                                            .build())
+                                            .data();
+                    return patientService.deletePatient(patient.id());
+                });
+    }
+
+    private UniversalResponse counted(Commits commits, Supplier<UniversalResponse> write) {
+        long before = statistics.getSuccessfulTransactionCount();
+        UniversalResponse response = write.get();
+        commits.commits += statistics.getSuccessfulTransactionCount() - before;
+        return response;
+    }
+
+    private int randomPatient() {
+        return ThreadLocalRandom.current().nextInt(PATIENTS);
+    }
+}
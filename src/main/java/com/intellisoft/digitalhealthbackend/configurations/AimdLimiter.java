@@ -0,0 +1,97 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to latency, additive increase / multiplicative decrease. A call
+ * slower than the latency threshold, or failing in the database, shrinks the limit by the backoff
+ * ratio; a fast call made while at least half the limit was in use grows it by one. Calls beyond
+ * the limit are rejected at once instead of queueing for a connection.
+ */
+public class AimdLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+    private volatile int limit;
+
+    public AimdLimiter(
+            String name,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            long latencyThresholdNanos,
+            double backoffRatio,
+            MeterRegistry meterRegistry) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException(
+                    name + ": limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException(name + ": backoff ratio must be in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        Gauge.builder("patient.concurrency.limit", this, AimdLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("kind", name)
+                .register(meterRegistry);
+        Gauge.builder("patient.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Service calls currently admitted")
+                .tag("kind", name)
+                .register(meterRegistry);
+        this.rejected =
+                Counter.builder("patient.concurrency.rejected")
+                        .description("Service calls shed because the limit was reached")
+                        .tag("kind", name)
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Admits a call and returns the number of calls in flight including it, or -1 when the limit
+     * is reached. An admitted call must be followed by {@link #release}.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * @param inFlightAtStart the value returned by {@link #tryAcquire}
+     * @param dropped the call failed in a way that signals overload, e.g. a connection timeout
+     */
+    public void release(long latencyNanos, int inFlightAtStart, boolean dropped) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            if (dropped || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            } else if (inFlightAtStart * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,38 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/** A registered API client with its rate limiter and request counters. */
+public final class ApiClient {
+    private final String id;
+    private final TokenBucket bucket;
+    private final Counter allowed;
+    private final Counter throttled;
+
+    ApiClient(String id, TokenBucket bucket, MeterRegistry meterRegistry) {
+        this.id = id;
+        this.bucket = bucket;
+        this.allowed = counter(meterRegistry, id, "allowed");
+        this.throttled = counter(meterRegistry, id, "throttled");
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /** Returns 0 when the request may proceed, otherwise the nanoseconds to wait. */
+    public long tryAcquire() {
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        (waitNanos == 0 ? allowed : throttled).increment();
+        return waitNanos;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String id, String outcome) {
+        return Counter.builder("api.client.requests")
+                .description("Authenticated requests by client and rate limit outcome")
+                .tag("client", id)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
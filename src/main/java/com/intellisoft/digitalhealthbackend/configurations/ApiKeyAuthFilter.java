@@ -2,8 +2,11 @@ package com.intellisoft.digitalhealthbackend.configurations;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,15 +22,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Component
 public class ApiKeyAuthFilter extends OncePerRequestFilter {
+    private final ApiKeyRegistry apiKeyRegistry;
     @Value("${api.key.header:X-API-KEY}")
     private String apiKeyHeader;
-    @Value("${api.key.secret:367293648}")
-    private String apiKeyValue;
     
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
-        return path.startsWith("/swagger-ui") 
+        return path.startsWith("/actuator")
+            || path.startsWith("/swagger-ui") 
             || path.startsWith("/v3/api-docs") 
             || path.startsWith("/swagger-resources")
             || path.startsWith("/webjars")
@@ -38,21 +41,41 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
+        ApiClient client = apiKeyRegistry.find(request.getHeader(apiKeyHeader));
 
-        String requestApiKey = request.getHeader(apiKeyHeader);
-
-        if (requestApiKey == null || !requestApiKey.equals(apiKeyValue)) {
+        if (client == null) {
+            recordAuthTime(started);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\": \"Invalid or missing API key\"}");
             return;
         }
+        // throttled before any handler runs, so an over-limit client never reaches the pool
+        long waitNanos = client.tryAcquire();
+        if (waitNanos > 0) {
+            recordAuthTime(started);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1;
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"status\":429,\"message\":\"Rate limit exceeded\"}");
+            return;
+        }
         var auth = new UsernamePasswordAuthenticationToken(
-                "api-client",
+                client.getId(),
                 null,
                 List.of(new SimpleGrantedAuthority("ROLE_API_CLIENT"))
         );
         SecurityContextHolder.getContext().setAuthentication(auth);
+        recordAuthTime(started);
         filterChain.doFilter(request, response);
     }
+
+    private static void recordAuthTime(long started) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.recordAuth(System.nanoTime() - started);
+        }
+    }
 }
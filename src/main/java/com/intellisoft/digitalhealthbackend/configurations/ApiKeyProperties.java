@@ -0,0 +1,30 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * API clients allowed to call the service. Only the SHA-256 of each key is configured, so the
+ * configuration does not reveal the keys themselves.
+ *
+ * <p>Spring binds a list from a single property source, so {@code clients[1]} set in the
+ * environment would replace rather than extend a {@code clients} list from a YAML file. Clients
+ * added on top of a profile's list therefore go under {@code extra-clients}, which is bound
+ * separately and merged in by {@link ApiKeyRegistry}.
+ */
+@ConfigurationProperties(prefix = "api.key")
+public record ApiKeyProperties(List<Client> clients, List<Client> extraClients) {
+
+    public ApiKeyProperties {
+        clients = clients == null ? List.of() : List.copyOf(clients);
+        extraClients = extraClients == null ? List.of() : List.copyOf(extraClients);
+    }
+
+    /**
+     * @param id name used in logs, metrics and as the authenticated principal
+     * @param keySha256 hex SHA-256 of the key, e.g. {@code printf %s "$KEY" | sha256sum}
+     * @param requestsPerSecond sustained rate
+     * @param burst requests allowed at once after an idle period
+     */
+    public record Client(String id, String keySha256, double requestsPerSecond, int burst) {}
+}
@@ -0,0 +1,70 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+
+/**
+ * API clients keyed by the SHA-256 of their key. A request's key is hashed once and looked up in a
+ * hash map; a wrong key costs one digest, however many clients are registered.
+ */
+@Component
+public class ApiKeyRegistry {
+    private static final Pattern SHA_256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Map<String, ApiClient> clientsByKeyHash;
+
+    public ApiKeyRegistry(ApiKeyProperties properties, MeterRegistry meterRegistry) {
+        Map<String, ApiClient> clients = new HashMap<>();
+        Set<String> ids = new HashSet<>();
+        long now = System.nanoTime();
+        List<ApiKeyProperties.Client> configured = new ArrayList<>(properties.clients());
+        configured.addAll(properties.extraClients());
+        for (ApiKeyProperties.Client client : configured) {
+            if (client.id() == null || client.id().isBlank() || !ids.add(client.id())) {
+                throw new IllegalStateException(
+                        "api.key.clients needs a unique id for every client, got " + client.id());
+            }
+            String keyHash =
+                    client.keySha256() == null ? "" : client.keySha256().toLowerCase(Locale.ROOT);
+            if (!SHA_256_HEX.matcher(keyHash).matches()) {
+                throw new IllegalStateException(
+                        "api.key.clients " + client.id() + ": key-sha256 must be 64 hex digits");
+            }
+            TokenBucket bucket = new TokenBucket(client.requestsPerSecond(), client.burst(), now);
+            if (clients.putIfAbsent(keyHash, new ApiClient(client.id(), bucket, meterRegistry))
+                    != null) {
+                throw new IllegalStateException(
+                        "api.key.clients " + client.id() + " reuses another client's key");
+            }
+        }
+        this.clientsByKeyHash = Map.copyOf(clients);
+    }
+
+    /** The client owning {@code apiKey}, or {@code null} for a missing or unknown key. */
+    public ApiClient find(String apiKey) {
+        return apiKey == null ? null : clientsByKeyHash.get(sha256Hex(apiKey));
+    }
+
+    public static String sha256Hex(String value) {
+        try {
+            byte[] digest =
+                    MessageDigest.getInstance("SHA-256")
+                            .digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refuses to start when the connection pool cannot serve the configured number of concurrent
+ * requests, instead of letting requests time out waiting for connections under load. On platform
+ * threads that is the Tomcat worker count; on virtual threads Tomcat has no such limit, so
+ * {@code patient.concurrency.max-requests} must be set and is checked instead.
+ */
+@Slf4j
+@Component
+@Profile("prod")
+public class DataSourcePoolSizeCheck implements InitializingBean {
+    private final DataSource dataSource;
+    private final ServerProperties serverProperties;
+    private final double minConnectionsPerThread;
+    private final boolean virtualThreads;
+    private final int maxConcurrentRequests;
+
+    @Autowired
+    public DataSourcePoolSizeCheck(
+            DataSource dataSource,
+            ServerProperties serverProperties,
+            @Value("${patient.datasource.min-connections-per-thread:1.0}")
+                    double minConnectionsPerThread,
+            Environment environment,
+            @Value("${patient.concurrency.max-requests:0}") int maxConcurrentRequests) {
+        this(
+                dataSource,
+                serverProperties,
+                minConnectionsPerThread,
+                Threading.VIRTUAL.isActive(environment),
+                maxConcurrentRequests);
+    }
+
+    DataSourcePoolSizeCheck(
+            DataSource dataSource,
+            ServerProperties serverProperties,
+            double minConnectionsPerThread,
+            boolean virtualThreads,
+            int maxConcurrentRequests) {
+        this.dataSource = dataSource;
+        this.serverProperties = serverProperties;
+        this.minConnectionsPerThread = minConnectionsPerThread;
+        this.virtualThreads = virtualThreads;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            log.warn("Skipping pool size check, datasource is not HikariCP");
+            return;
+        }
+        int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        String limitProperty;
+        int concurrentRequests;
+        if (virtualThreads) {
+            if (maxConcurrentRequests < 1) {
+                throw new IllegalStateException(
+                        "Virtual threads do not limit concurrent requests; set"
+                                + " patient.concurrency.max-requests so that requests wait for a"
+                                + " permit instead of for a pooled connection");
+            }
+            limitProperty = "patient.concurrency.max-requests";
+            concurrentRequests = maxConcurrentRequests;
+        } else {
+            limitProperty = "server.tomcat.threads.max";
+            concurrentRequests = serverProperties.getTomcat().getThreads().getMax();
+        }
+        int requiredPoolSize = (int) Math.ceil(concurrentRequests * minConnectionsPerThread);
+        if (poolSize < requiredPoolSize) {
+            throw new IllegalStateException(
+                    String.format(
+                            "spring.datasource.hikari.maximum-pool-size=%d is too small for"
+                                    + " %s=%d; at least %d connections"
+                                    + " are required (patient.datasource"
+                                    + ".min-connections-per-thread=%s)",
+                            poolSize,
+                            limitProperty,
+                            concurrentRequests,
+                            requiredPoolSize,
+                            minConnectionsPerThread));
+        }
+        log.info(
+                "Connection pool size {} serves {} concurrent requests ({}, required {})",
+                poolSize,
+                concurrentRequests,
+                limitProperty,
+                requiredPoolSize);
+    }
+}
@@ -0,0 +1,35 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import java.util.List;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Wraps the datasource once with every {@link QueryExecutionListener} bean, if there are any. */
+@Configuration
+public class DataSourceProxyConfiguration {
+
+    @Bean
+    static BeanPostProcessor queryListenerDataSourcePostProcessor(
+            ObjectProvider<QueryExecutionListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                List<QueryExecutionListener> queryListeners = listeners.orderedStream().toList();
+                if (queryListeners.isEmpty()) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource);
+                queryListeners.forEach(builder::listener);
+                return builder.name(beanName).build();
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Adaptive read and write concurrency limits around PatientService (patient.load-shedding). */
+@Configuration
+@ConditionalOnProperty(
+        prefix = "patient.load-shedding",
+        name = "enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+@EnableConfigurationProperties(LoadSheddingConfiguration.LoadSheddingProperties.class)
+public class LoadSheddingConfiguration {
+
+    @Bean
+    ServiceLoadSheddingAspect serviceLoadSheddingAspect(
+            LoadSheddingProperties properties, MeterRegistry meterRegistry) {
+        return new ServiceLoadSheddingAspect(
+                limiter("read", properties.read(), meterRegistry),
+                limiter("write", properties.write(), meterRegistry));
+    }
+
+    private static AimdLimiter limiter(String name, Limit limit, MeterRegistry meterRegistry) {
+        return new AimdLimiter(
+                name,
+                limit.initial(),
+                limit.min(),
+                limit.max(),
+                limit.latencyThreshold().toNanos(),
+                limit.backoffRatio(),
+                meterRegistry);
+    }
+
+    @ConfigurationProperties(prefix = "patient.load-shedding")
+    record LoadSheddingProperties(Limit read, Limit write) {}
+
+    record Limit(int initial, int min, int max, Duration latencyThreshold, double backoffRatio) {}
+}
@@ -0,0 +1,49 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import liquibase.CatalogAndSchema;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.core.H2Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.structure.DatabaseObject;
+
+/**
+ * Liquibase support for H2 opened with {@code DATABASE_TO_LOWER=TRUE}, as every profile does. The
+ * stock H2 support assumes unquoted names are stored upper case, so on a database it had already
+ * migrated it looked up {@code UP.PUBLIC.DATABASECHANGELOG}, missed the lower-case table and
+ * failed creating it again: on every restart of a file database and in every further test context
+ * sharing an in-memory one. Registered in {@code META-INF/services/liquibase.database.Database}.
+ */
+public class LowerCaseH2Database extends H2Database {
+
+    @Override
+    public int getPriority() {
+        return super.getPriority() + 1;
+    }
+
+    @Override
+    public boolean isCorrectDatabaseImplementation(DatabaseConnection connection)
+            throws DatabaseException {
+        if (!super.isCorrectDatabaseImplementation(connection)
+                || !(connection instanceof JdbcConnection jdbcConnection)) {
+            return false;
+        }
+        try {
+            return jdbcConnection.getMetaData().storesLowerCaseIdentifiers();
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    @Override
+    public String correctObjectName(String name, Class<? extends DatabaseObject> objectType) {
+        return name == null ? null : name.toLowerCase(Locale.US);
+    }
+
+    @Override
+    public CatalogAndSchema.CatalogAndSchemaCase getSchemaAndCatalogCase() {
+        return CatalogAndSchema.CatalogAndSchemaCase.LOWER_CASE;
+    }
+}
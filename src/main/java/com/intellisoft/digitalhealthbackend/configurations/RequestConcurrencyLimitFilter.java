@@ -0,0 +1,86 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Bulkhead in front of the request handlers. With virtual threads Tomcat no longer caps the
+ * number of requests in flight, so without it every request beyond the connection pool size
+ * would wait in HikariCP and fail with a connection timeout instead of being turned away quickly.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "patient.concurrency.max-requests")
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final int maxRequests;
+    private final long acquireTimeoutNanos;
+
+    public RequestConcurrencyLimitFilter(
+            @Value("${patient.concurrency.max-requests}") int maxRequests,
+            @Value("${patient.concurrency.acquire-timeout:2s}") Duration acquireTimeout) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("patient.concurrency.max-requests must be >= 1");
+        }
+        this.permits = new Semaphore(maxRequests);
+        this.maxRequests = maxRequests;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug(
+                    "Rejected {} {}, {} requests in flight",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    maxRequests);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter()
+                    .write("{\"status\":503,\"message\":\"Server is busy, retry shortly\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import java.util.Locale;
+
+/**
+ * Where the time of one request went: SQL statements and their duration, the API key check, the
+ * outermost service call and JSON serialization. Bound to the request thread by {@link
+ * RequestTimingFilter}; work done on other threads (async exports, the ingestion flusher) is not
+ * attributed to the request.
+ */
+public final class RequestTiming {
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedNanos = System.nanoTime();
+    private int statements;
+    private long databaseNanos;
+    private long authNanos;
+    private long serviceNanos;
+    private long serializationNanos;
+    private boolean serialized;
+    private int serviceDepth;
+
+    RequestTiming() {}
+
+    /** The timing of the request on this thread, or {@code null} outside a request. */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public void recordStatements(int count, long nanos) {
+        statements += count;
+        databaseNanos += nanos;
+    }
+
+    public void recordAuth(long nanos) {
+        authNanos += nanos;
+    }
+
+    public void recordSerialization(long nanos) {
+        serializationNanos += nanos;
+        serialized = true;
+    }
+
+    /** Returns true for the outermost service call, the only one whose time is recorded. */
+    boolean enterService() {
+        return serviceDepth++ == 0;
+    }
+
+    void exitService(long nanos, boolean outermost) {
+        serviceDepth--;
+        if (outermost) {
+            serviceNanos += nanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Header value, e.g. {@code db;desc="3 statements";dur=1.20, auth;dur=0.05, ...}; serialization
+     * is left out until it has been measured.
+     */
+    public String serverTiming() {
+        String serialization =
+                serialized
+                        ? String.format(
+                                Locale.ROOT, " serialization;dur=%.2f,", millis(serializationNanos))
+                        : "";
+        return String.format(
+                Locale.ROOT,
+                "db;desc=\"%d statements\";dur=%.2f, auth;dur=%.2f, service;dur=%.2f,%s"
+                        + " total;dur=%.2f",
+                statements,
+                millis(databaseNanos),
+                millis(authNanos),
+                millis(serviceNanos),
+                serialization,
+                millis(System.nanoTime() - startedNanos));
+    }
+
+    /** Key=value fields for the request log line. */
+    String logFields() {
+        return String.format(
+                Locale.ROOT,
+                "statements=%d db_ms=%.2f auth_ms=%.2f service_ms=%.2f serialization_ms=%.2f"
+                        + " total_ms=%.2f",
+                statements,
+                millis(databaseNanos),
+                millis(authNanos),
+                millis(serviceNanos),
+                millis(serializationNanos),
+                millis(System.nanoTime() - startedNanos));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,31 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Records the time spent in the outermost service call of a request, including transaction begin
+ * and commit: like the filters, it runs just inside the load-shedding limit.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestTimingAspect {
+
+    @Around("execution(public * com.intellisoft.digitalhealthbackend.service.*Service+.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        boolean outermost = timing.enterService();
+        long started = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exitService(System.nanoTime() - started, outermost);
+        }
+    }
+}
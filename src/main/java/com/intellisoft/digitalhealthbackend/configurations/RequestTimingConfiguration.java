@@ -0,0 +1,48 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request statement count and timing (patient.request-timing.enabled, on by default), reported
+ * in a {@code Server-Timing} header and a {@code request.timing} log line.
+ */
+@Configuration
+@ConditionalOnProperty(
+        prefix = "patient.request-timing",
+        name = "enabled",
+        havingValue = "true",
+        matchIfMissing = true)
+public class RequestTimingConfiguration {
+
+    @Bean
+    FilterRegistrationBean<RequestTimingFilter> requestTimingFilter() {
+        FilterRegistrationBean<RequestTimingFilter> registration =
+                new FilterRegistrationBean<>(new RequestTimingFilter());
+        // after the concurrency limit, before security so that the API key check is measured
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    RequestTimingQueryListener requestTimingQueryListener() {
+        return new RequestTimingQueryListener();
+    }
+
+    @Bean
+    RequestTimingAspect requestTimingAspect() {
+        return new RequestTimingAspect();
+    }
+
+    @Bean
+    TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(
+            ObjectMapper objectMapper,
+            @Value("${patient.request-timing.max-buffered-bytes:65536}") int maxBufferedBytes) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, maxBufferedBytes);
+    }
+}
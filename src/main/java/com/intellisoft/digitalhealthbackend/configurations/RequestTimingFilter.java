@@ -0,0 +1,43 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Binds a {@link RequestTiming} to the request thread and writes one {@code request.timing} log
+ * line per request. JSON responses get their {@code Server-Timing} header from {@link
+ * TimedJacksonHttpMessageConverter} once serialization is measured; other responses get it here if
+ * they have not been committed yet.
+ */
+@Slf4j(topic = "request.timing")
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.clear();
+            if (!response.isCommitted()
+                    && !response.containsHeader(RequestTiming.SERVER_TIMING_HEADER)) {
+                response.setHeader(RequestTiming.SERVER_TIMING_HEADER, timing.serverTiming());
+            }
+            if (log.isInfoEnabled()) {
+                log.info(
+                        "method={} uri={} status={} {}",
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        response.getStatus(),
+                        timing.logFields());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Counts the statements run on the request thread and their duration. datasource-proxy only
+ * reports whole milliseconds, so the duration is measured here in nanoseconds.
+ */
+public class RequestTimingQueryListener implements QueryExecutionListener {
+    private static final String STARTED_NANOS = RequestTimingQueryListener.class.getName();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (RequestTiming.current() != null) {
+            execInfo.addCustomValue(STARTED_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTiming timing = RequestTiming.current();
+        Long startedNanos = execInfo.getCustomValue(STARTED_NANOS, Long.class);
+        if (timing != null && startedNanos != null) {
+            timing.recordStatements(queryInfoList.size(), System.nanoTime() - startedNanos);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine-backed JCache regions of Hibernate's second-level cache (patient.second-level-cache).
+ * Every region is created here with its own size bound and expiry, and Hibernate fails at startup
+ * on a region that is not configured. Each region's hits, misses, evictions and size are published
+ * as {@code cache.*} meters tagged with the region name.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheConfiguration.SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfiguration {
+    /**
+     * Must never lose entries: a query result is only known to be stale while the last update time
+     * of its tables is still here.
+     */
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /**
+     * A manager of this context's own: the provider's default manager is shared by every context in
+     * the JVM, which would mix up entities of different databases.
+     */
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(
+            SecondLevelCacheProperties properties, MeterRegistry meterRegistry) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, new Region(null, null, null));
+        for (Map.Entry<String, Region> region : properties.regions().entrySet()) {
+            Cache<Object, Object> cache =
+                    createRegion(cacheManager, region.getKey(), region.getValue());
+            CaffeineCacheMetrics.monitor(
+                    meterRegistry,
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class),
+                    region.getKey());
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(
+            CacheManager secondLevelCacheManager) {
+        return hibernateProperties ->
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static Cache<Object, Object> createRegion(
+            CacheManager cacheManager, String name, Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setNativeStatisticsEnabled(true);
+        if (region.maximumSize() != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+        }
+        if (region.expireAfterWrite() != null) {
+            configuration.setExpireAfterWrite(
+                    OptionalLong.of(region.expireAfterWrite().toNanos()));
+        }
+        if (region.expireAfterAccess() != null) {
+            configuration.setExpireAfterAccess(
+                    OptionalLong.of(region.expireAfterAccess().toNanos()));
+        }
+        return cacheManager.createCache(name, configuration);
+    }
+
+    @ConfigurationProperties(prefix = "patient.second-level-cache")
+    record SecondLevelCacheProperties(Map<String, Region> regions) {
+
+        SecondLevelCacheProperties {
+            regions = regions == null ? Map.of() : Map.copyOf(regions);
+            if (regions.containsKey(UPDATE_TIMESTAMPS_REGION)) {
+                throw new IllegalArgumentException(
+                        UPDATE_TIMESTAMPS_REGION + " is unbounded and cannot be configured");
+            }
+        }
+    }
+
+    /**
+     * @param maximumSize entries kept before the least valuable are evicted, unbounded if unset
+     * @param expireAfterWrite lifetime of an entry since it was cached
+     * @param expireAfterAccess lifetime of an entry since it was last read or written
+     */
+    record Region(Long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {}
+}
@@ -0,0 +1,57 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import com.intellisoft.digitalhealthbackend.exceptions.ServiceOverloadedException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * Puts every {@code PatientService} call behind the read or the write {@link AimdLimiter}, so that
+ * when the database slows down the excess is shed with a 503 instead of queueing in Tomcat and
+ * HikariCP until every request times out. Ordered ahead of the transaction advice, so a shed call
+ * never takes a connection and failures to begin or commit count against the limit.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceLoadSheddingAspect {
+    private final AimdLimiter readLimiter;
+    private final AimdLimiter writeLimiter;
+
+    public ServiceLoadSheddingAspect(AimdLimiter readLimiter, AimdLimiter writeLimiter) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+    }
+
+    @Around(
+            "execution(public *"
+                    + " com.intellisoft.digitalhealthbackend.service.PatientService+.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        AimdLimiter limiter =
+                isRead(joinPoint.getSignature().getName()) ? readLimiter : writeLimiter;
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            throw new ServiceOverloadedException("Service is overloaded, retry shortly");
+        }
+        long started = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return joinPoint.proceed();
+        } catch (DataAccessException | TransactionException exception) {
+            // connection timeouts and lock waits: the database is the bottleneck
+            dropped = true;
+            throw exception;
+        } finally {
+            limiter.release(System.nanoTime() - started, inFlight, dropped);
+        }
+    }
+
+    static boolean isRead(String methodName) {
+        return methodName.startsWith("retrieve")
+                || methodName.startsWith("view")
+                || methodName.startsWith("scroll");
+    }
+}
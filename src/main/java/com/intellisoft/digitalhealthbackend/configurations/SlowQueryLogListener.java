@@ -0,0 +1,50 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Logs a random sample of the statements that ran longer than a threshold. Only the SQL text is
+ * written; bind parameters carry patient data and are never logged.
+ */
+@Slf4j(topic = "sql.slow")
+public class SlowQueryLogListener implements QueryExecutionListener {
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final DoubleSupplier sampler;
+
+    public SlowQueryLogListener(Duration threshold, double sampleRate) {
+        this(threshold, sampleRate, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    SlowQueryLogListener(Duration threshold, double sampleRate, DoubleSupplier sampler) {
+        this.thresholdMillis = threshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.sampler = sampler;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis
+                || !log.isInfoEnabled()
+                || sampler.getAsDouble() >= sampleRate) {
+            return;
+        }
+        log.info(
+                "{} ms{}{}: {}",
+                execInfo.getElapsedTime(),
+                execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                execInfo.isSuccess() ? "" : ", failed",
+                queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+    }
+}
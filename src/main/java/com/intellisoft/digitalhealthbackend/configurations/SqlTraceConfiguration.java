@@ -0,0 +1,20 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Adds the sampled slow-statement logger to the datasource proxy when patient.sql-trace is on. */
+@Configuration
+@ConditionalOnProperty(prefix = "patient.sql-trace", name = "enabled", havingValue = "true")
+public class SqlTraceConfiguration {
+
+    @Bean
+    SlowQueryLogListener slowQueryLogListener(
+            @Value("${patient.sql-trace.threshold:200ms}") Duration threshold,
+            @Value("${patient.sql-trace.sample-rate:0.1}") double sampleRate) {
+        return new SlowQueryLogListener(threshold, sampleRate);
+    }
+}
@@ -0,0 +1,104 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Serializes into a buffer so that the serialization time is known, and the {@code Server-Timing}
+ * header can still be added, before the first byte is sent; such a body also gets an exact {@code
+ * Content-Length}. Bulk reports and full encounter histories are not paged, so a response that
+ * outgrows the buffer is streamed from there on, its header sent without the serialization figure.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final int maxBufferedBytes;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, int maxBufferedBytes) {
+        super(objectMapper);
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    @Override
+    protected void writeInternal(
+            Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        TimedBody body = new TimedBody(outputMessage, timing);
+        long started = System.nanoTime();
+        super.writeInternal(
+                object,
+                type,
+                new HttpOutputMessage() {
+                    @Override
+                    public OutputStream getBody() {
+                        return body;
+                    }
+
+                    @Override
+                    public HttpHeaders getHeaders() {
+                        return outputMessage.getHeaders();
+                    }
+                });
+        if (body.buffer == null) {
+            return;
+        }
+        timing.recordSerialization(System.nanoTime() - started);
+        HttpHeaders headers = outputMessage.getHeaders();
+        headers.set(RequestTiming.SERVER_TIMING_HEADER, timing.serverTiming());
+        headers.setContentLength(body.buffer.size());
+        body.buffer.writeTo(outputMessage.getBody());
+    }
+
+    /** Buffers up to the limit, then sends the headers and everything written so far on. */
+    private final class TimedBody extends OutputStream {
+        private final HttpOutputMessage outputMessage;
+        private final RequestTiming timing;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        private OutputStream body;
+
+        TimedBody(HttpOutputMessage outputMessage, RequestTiming timing) {
+            this.outputMessage = outputMessage;
+            this.timing = timing;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target(1).write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            target(length).write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (body != null) {
+                body.flush();
+            }
+        }
+
+        private OutputStream target(int length) throws IOException {
+            if (body == null && buffer.size() + length > maxBufferedBytes) {
+                outputMessage
+                        .getHeaders()
+                        .set(RequestTiming.SERVER_TIMING_HEADER, timing.serverTiming());
+                body = outputMessage.getBody();
+                buffer.writeTo(body);
+                buffer = null;
+            }
+            return body != null ? body : buffer;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count it keeps the time at which the bucket would be
+ * full again (the generic cell rate algorithm), so taking a token is a single compare-and-set.
+ */
+public final class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double tokensPerSecond, int burst, long nowNanos) {
+        if (tokensPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException(
+                    "Rate must be positive and burst at least 1, got "
+                            + tokensPerSecond
+                            + "/s and "
+                            + burst);
+        }
+        this.nanosPerToken = Math.max(1L, Math.round(1_000_000_000L / tokensPerSecond));
+        this.burstNanos = nanosPerToken * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /** Takes a token and returns 0, or returns the nanoseconds until one will be available. */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + nanosPerToken;
+            long waitNanos = next - nowNanos - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,26 +1,49 @@
 package com.intellisoft.digitalhealthbackend.controller;
 
 import com.intellisoft.digitalhealthbackend.dto.*;
+import com.intellisoft.digitalhealthbackend.service.ObservationIngestionService;
+import com.intellisoft.digitalhealthbackend.service.PatientBulkService;
+import com.intellisoft.digitalhealthbackend.service.PatientExportService;
 import com.intellisoft.digitalhealthbackend.service.PatientService;
 import io.swagger.v3.oas.annotations.Operation;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RequiredArgsConstructor
 @RequestMapping("/api/patients")
 @RestController
 public class PatientController {
+    /** Clients may keep polled reads but must revalidate them; patient data is never shared. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private  final PatientService patientService;
+    private final PatientBulkService patientBulkService;
+    private final PatientExportService patientExportService;
+    private final ObservationIngestionService observationIngestionService;
     @Operation(description = "Creates Patient")
     @PostMapping()
     public ResponseEntity<UniversalResponse>createPatient (@RequestBody PatientWrapper patientWrapper){
         return ResponseEntity.ok(patientService.createPatient(patientWrapper));
     }
-    @Operation(summary = "Retrieve existing Patient")
+    @Operation(summary = "Bulk create patients", description = "Accepts a JSON array or NDJSON stream of patients and reports the outcome of every row")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<UniversalResponse>createPatients(InputStream payload){
+        return ResponseEntity.ok(patientBulkService.importPatients(payload));
+    }
+    @Operation(summary = "Retrieve existing Patient", description = "Honors If-None-Match and If-Modified-Since with 304")
     @GetMapping("/{id}")
-    public ResponseEntity<UniversalResponse>retrievePatient(@PathVariable(name = "id") Long patientId){
-        return ResponseEntity.ok(patientService.retrievePatient(patientId));
+    public ResponseEntity<UniversalResponse>retrievePatient(@PathVariable(name = "id") Long patientId, WebRequest webRequest){
+        return conditionalRead(webRequest, patientService.retrievePatientVersion(patientId), () -> patientService.retrievePatient(patientId));
     }
     @Operation(summary = "Update patient")
     @PutMapping("/{id}")
@@ -42,6 +65,26 @@ public class PatientController {
     public ResponseEntity<UniversalResponse>addEncounterObservation(@PathVariable(name = "encounterId") Long encounterId, @RequestBody ObservationWrapper observationWrapper){
         return ResponseEntity.ok(patientService.addEncounterObservation(encounterId,observationWrapper));
     }
+    @Operation(summary = "add a batch of encounter Observations", description = "Validates the whole list, inserts it in one transaction and returns the new observation ids")
+    @PostMapping("add/observations/{encounterId}/batch")
+    public ResponseEntity<UniversalResponse>addEncounterObservations(@PathVariable(name = "encounterId") Long encounterId, @RequestBody List<ObservationWrapper> observationWrappers){
+        return ResponseEntity.ok(patientService.addEncounterObservations(encounterId,observationWrappers));
+    }
+    @Operation(summary = "queue an encounter Observation", description = "Validates and queues the observation, returns 202 with a tracking id; queued observations are stored in batches")
+    @PostMapping("add/observations/{encounterId}/async")
+    public ResponseEntity<UniversalResponse>submitEncounterObservation(@PathVariable(name = "encounterId") Long encounterId, @RequestBody ObservationWrapper observationWrapper){
+        return ResponseEntity.accepted().body(observationIngestionService.submitObservation(encounterId,observationWrapper));
+    }
+    @GetMapping("observations/ingestion/{trackingId}")
+    @Operation(summary = "Queued observation status", description = "QUEUED, STORED with the observation id, or REJECTED with the reason")
+    public ResponseEntity<UniversalResponse>retrieveIngestionReceipt(@PathVariable("trackingId") String trackingId){
+        return ResponseEntity.ok(observationIngestionService.retrieveReceipt(trackingId));
+    }
+    @GetMapping("observations/ingestion/stats")
+    @Operation(summary = "Observation ingestion queue statistics", description = "Queue depth, throughput counters and flush latency")
+    public ResponseEntity<UniversalResponse>retrieveIngestionStats(){
+        return ResponseEntity.ok(observationIngestionService.retrieveQueueStats());
+    }
     @PostMapping("end/encounter/{encounterId}")
     @Operation(summary = "End patient encounter")
     public ResponseEntity<UniversalResponse>endPatientEncounter(@PathVariable(name = "encounterId") Long encounterId, @RequestBody EndEncounterWrapper endEncounter){
@@ -49,18 +92,49 @@ public class PatientController {
     }
 
     @GetMapping()
-    @Operation(summary = "Retrieve patient encounter and observations")
-    public ResponseEntity<UniversalResponse>retrievePatientEncountersAndObservation(@RequestParam(name = "family") String family,@RequestParam(name = "given") String givenName, @RequestParam(name = "identifier") Long identifier,@RequestParam(name = "birthDate") String birthDate, @RequestParam(name = "page", defaultValue = "0") int page, @RequestParam(name = "size",defaultValue = "10") int size){
+    @Operation(summary = "Retrieve patient encounter and observations", description = "Pass cursor (empty for the first page, then nextCursor) for keyset pagination; page is ignored in that mode")
+    public ResponseEntity<UniversalResponse>retrievePatientEncountersAndObservation(@RequestParam(name = "family") String family,@RequestParam(name = "given") String givenName, @RequestParam(name = "identifier") Long identifier,@RequestParam(name = "birthDate") String birthDate, @RequestParam(name = "page", defaultValue = "0") int page, @RequestParam(name = "size",defaultValue = "10") int size, @RequestParam(name = "cursor", required = false) String cursor){
+        if (cursor != null) {
+            return ResponseEntity.ok(patientService.scrollPatientEncountersAndObservation(family, givenName,identifier,birthDate,cursor,size));
+        }
         return ResponseEntity.ok(patientService.retrievePatientEncountersAndObservation(family, givenName,identifier,birthDate,page,size));
     }
-    @Operation(summary = "view Patient encounters")
+    @Operation(summary = "view Patient encounters", description = "Honors If-None-Match and If-Modified-Since with 304")
     @GetMapping("/{id}/encounters")
-    public ResponseEntity<UniversalResponse>viewPatientEncounters(@PathVariable("id")Long patientId){
-        return ResponseEntity.ok(patientService.viewPatientEncounters(patientId));
+    public ResponseEntity<UniversalResponse>viewPatientEncounters(@PathVariable("id")Long patientId, WebRequest webRequest){
+        return conditionalRead(webRequest, patientService.viewPatientEncountersVersion(patientId), () -> patientService.viewPatientEncounters(patientId));
     }
     @GetMapping("/{id}/observations")
-    @Operation(summary = "view Patient Observations")
-    public ResponseEntity<UniversalResponse>viewPatientObservations(@PathVariable("id")Long patientId){
-        return ResponseEntity.ok(patientService.viewPatientObservations(patientId));
+    @Operation(summary = "view Patient Observations", description = "Pass cursor (empty for the first page, then nextCursor) for keyset pagination; without a cursor the latest observations honor If-None-Match and If-Modified-Since with 304")
+    public ResponseEntity<UniversalResponse>viewPatientObservations(@PathVariable("id")Long patientId, @RequestParam(name = "cursor", required = false) String cursor, @RequestParam(name = "size",defaultValue = "10") int size, WebRequest webRequest){
+        if (cursor != null) {
+            return ResponseEntity.ok(patientService.scrollPatientObservations(patientId, cursor, size));
+        }
+        return conditionalRead(webRequest, patientService.viewPatientObservationsVersion(patientId), () -> patientService.viewPatientObservations(patientId));
+    }
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Patient cache statistics", description = "Hit, miss and eviction counters of the in-process patient cache")
+    public ResponseEntity<UniversalResponse>retrievePatientCacheStats(){
+        return ResponseEntity.ok(patientService.retrievePatientCacheStats());
+    }
+    @GetMapping(value = "/{id}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export patient history", description = "Streams every encounter followed by its observations, one JSON object per line")
+    public ResponseEntity<StreamingResponseBody>exportPatientHistory(@PathVariable("id")Long patientId){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(patientExportService.exportPatientHistory(patientId));
+    }
+
+    /**
+     * Answers 304 from the version lookup alone when the client's copy is current, and only
+     * otherwise runs the read. The version is taken first, so a write in between can only make the
+     * body newer than its ETag, which costs the client one more full response and never a stale 304.
+     * A missing version (no active patient) lets the read report the error.
+     */
+    private static ResponseEntity<UniversalResponse> conditionalRead(WebRequest webRequest, Optional<ResourceVersion> version, Supplier<UniversalResponse> read) {
+        if (version.isPresent() && webRequest.checkNotModified(version.get().etag(), version.get().lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(read.get());
     }
 }
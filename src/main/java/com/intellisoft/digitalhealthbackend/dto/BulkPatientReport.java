@@ -0,0 +1,8 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import java.util.List;
+import lombok.Builder;
+
+@Builder
+public record BulkPatientReport(
+        int received, int created, int restored, int rejected, List<BulkPatientResult> results) {}
@@ -0,0 +1,8 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import com.intellisoft.digitalhealthbackend.enums.BulkRowStatus;
+import lombok.Builder;
+
+@Builder
+public record BulkPatientResult(
+        int row, Long identifier, BulkRowStatus status, Long patientId, String message) {}
@@ -0,0 +1,15 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** One encounter joined with one of its observations; observation fields are null when it has none. */
+public record ClinicalHistoryRow(
+        Long encounterId,
+        LocalDateTime start,
+        LocalDateTime end,
+        LocalDate encounterDate,
+        Long observationId,
+        String code,
+        String value,
+        LocalDateTime effectiveDateTime) {}
@@ -0,0 +1,40 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.intellisoft.digitalhealthbackend.models.Encounter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response shape of an encounter. Observations are only included by {@link #withObservations},
+ * for encounters whose observations were fetched with them; {@link #from} never touches the lazy
+ * collection.
+ */
+public record EncounterView(
+        Long id,
+        LocalDateTime start,
+        LocalDateTime end,
+        LocalDate encounterDate,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<ObservationView> observations) {
+
+    public static EncounterView from(Encounter encounter) {
+        return new EncounterView(
+                encounter.getId(),
+                encounter.getStart(),
+                encounter.getEnd(),
+                encounter.getEncounterDate(),
+                null);
+    }
+
+    public static EncounterView withObservations(Encounter encounter) {
+        return new EncounterView(
+                encounter.getId(),
+                encounter.getStart(),
+                encounter.getEnd(),
+                encounter.getEncounterDate(),
+                encounter.getObservations() == null
+                        ? List.of()
+                        : encounter.getObservations().stream().map(ObservationView::from).toList());
+    }
+}
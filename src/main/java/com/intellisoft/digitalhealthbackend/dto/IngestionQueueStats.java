@@ -0,0 +1,16 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import lombok.Builder;
+
+@Builder
+public record IngestionQueueStats(
+        int queueDepth,
+        int capacity,
+        long accepted,
+        long throttled,
+        long stored,
+        long rejected,
+        long flushes,
+        double lastFlushMillis,
+        double maxFlushMillis,
+        double averageFlushMillis) {}
@@ -0,0 +1,12 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import com.intellisoft.digitalhealthbackend.enums.IngestionStatus;
+import lombok.Builder;
+
+@Builder(toBuilder = true)
+public record IngestionReceipt(
+        String trackingId,
+        Long encounterId,
+        IngestionStatus status,
+        Long observationId,
+        String message) {}
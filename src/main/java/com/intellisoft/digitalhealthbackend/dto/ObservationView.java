@@ -0,0 +1,18 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import com.intellisoft.digitalhealthbackend.models.Observation;
+import java.time.LocalDateTime;
+
+/** Response shape of an observation; the encounter id is read from the lazy proxy's key. */
+public record ObservationView(
+        Long id, Long encounterId, String code, String value, LocalDateTime effectiveDateTime) {
+
+    public static ObservationView from(Observation observation) {
+        return new ObservationView(
+                observation.getId(),
+                observation.getEncounter() == null ? null : observation.getEncounter().getId(),
+                observation.getCode(),
+                observation.getValue(),
+                observation.getEffectiveDateTime());
+    }
+}
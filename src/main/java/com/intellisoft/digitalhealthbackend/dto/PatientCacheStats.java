@@ -0,0 +1,12 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import lombok.Builder;
+
+@Builder
+public record PatientCacheStats(
+        long size,
+        long hits,
+        long misses,
+        double hitRate,
+        long evictions,
+        long invalidations) {}
@@ -0,0 +1,9 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+public interface PatientIdentity {
+    Long getId();
+
+    Long getIdentifier();
+
+    Boolean getSoftDelete();
+}
@@ -0,0 +1,11 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import com.intellisoft.digitalhealthbackend.enums.BulkRowStatus;
+
+/** Outcome of {@code PatientRepository#upsert}; {@code patient} is null when rejected. */
+public record PatientUpsert(BulkRowStatus status, PatientView patient) {
+
+    public static PatientUpsert rejected() {
+        return new PatientUpsert(BulkRowStatus.REJECTED, null);
+    }
+}
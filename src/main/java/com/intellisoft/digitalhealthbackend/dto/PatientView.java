@@ -0,0 +1,38 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.intellisoft.digitalhealthbackend.enums.Gender;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Detached, immutable copy of a patient's demographics; safe to share from the patient cache. The
+ * row version is kept for conditional GETs and sent as the ETag, not in the body.
+ */
+public record PatientView(
+        Long id,
+        Long identifier,
+        String givenName,
+        String familyName,
+        Gender gender,
+        LocalDate birthDate,
+        @JsonIgnore Long version,
+        @JsonIgnore Instant lastModifiedOn) {
+
+    public static PatientView from(Patient patient) {
+        return new PatientView(
+                patient.getId(),
+                patient.getIdentifier(),
+                patient.getGivenName(),
+                patient.getFamilyName(),
+                patient.getGender(),
+                patient.getBirthDate(),
+                patient.getVersion(),
+                patient.getLastModifiedOn());
+    }
+
+    public RowVersion rowVersion() {
+        return new RowVersion(id, version, lastModifiedOn);
+    }
+}
@@ -0,0 +1,44 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validators of a read for conditional GETs: a strong ETag that changes whenever any row the
+ * response is built from is added, removed or updated, and the latest modification time among
+ * those rows ({@code null} when there are none).
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    /** Digests the rows' ids and versions in the order the response lists them. */
+    public static ResourceVersion of(List<RowVersion> rows) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (RowVersion row : rows) {
+            digest.update((row.id() + ":" + row.version() + ";").getBytes(StandardCharsets.UTF_8));
+        }
+        String etag = Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        Instant lastModified =
+                rows.stream()
+                        .map(RowVersion::lastModifiedOn)
+                        .filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder())
+                        .orElse(null);
+        return new ResourceVersion('"' + etag + '"', lastModified);
+    }
+
+    /** Epoch milliseconds as taken by {@code WebRequest.checkNotModified}, -1 if unknown. */
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+}
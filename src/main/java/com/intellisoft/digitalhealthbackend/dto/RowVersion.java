@@ -0,0 +1,6 @@
+package com.intellisoft.digitalhealthbackend.dto;
+
+import java.time.Instant;
+
+/** Version columns of one row, read without loading the entity. */
+public record RowVersion(Long id, Long version, Instant lastModifiedOn) {}
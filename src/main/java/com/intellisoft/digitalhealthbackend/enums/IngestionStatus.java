@@ -0,0 +1,5 @@
+package com.intellisoft.digitalhealthbackend.enums;
+
+public enum IngestionStatus {
+    QUEUED, STORED, REJECTED
+}
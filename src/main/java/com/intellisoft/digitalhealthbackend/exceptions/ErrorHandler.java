@@ -1,6 +1,8 @@
 package com.intellisoft.digitalhealthbackend.exceptions;
 
 import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -15,6 +17,24 @@ public class ErrorHandler {
                 .message(exception.getMessage())
                 .build());
     }
+    @ExceptionHandler(IngestionUnavailableException.class)
+    ResponseEntity<UniversalResponse>handleIngestionUnavailable(IngestionUnavailableException exception){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(UniversalResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .message(exception.getMessage())
+                .build());
+    }
+    @ExceptionHandler(ServiceOverloadedException.class)
+    ResponseEntity<UniversalResponse>handleServiceOverloaded(ServiceOverloadedException exception){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(UniversalResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .message(exception.getMessage())
+                .build());
+    }
     @ExceptionHandler(Exception.class)
     ResponseEntity<UniversalResponse>handleGenericExceptions(Exception exception){
         return ResponseEntity.ok(UniversalResponse.builder()
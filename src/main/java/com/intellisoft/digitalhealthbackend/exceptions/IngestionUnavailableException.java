@@ -0,0 +1,8 @@
+package com.intellisoft.digitalhealthbackend.exceptions;
+
+/** The ingestion queue is full or shutting down; the client should retry later. */
+public class IngestionUnavailableException extends RuntimeException {
+    public IngestionUnavailableException(String message) {
+        super(message);
+    }
+}
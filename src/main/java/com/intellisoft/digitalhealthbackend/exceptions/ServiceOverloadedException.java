@@ -0,0 +1,8 @@
+package com.intellisoft.digitalhealthbackend.exceptions;
+
+/** The adaptive concurrency limit is reached; the client should retry later. */
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,9 @@
 package com.intellisoft.digitalhealthbackend.models;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -13,6 +11,7 @@ import java.time.ZonedDateTime;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -21,9 +20,11 @@ import org.springframework.format.annotation.DateTimeFormat;
 @Getter
 @Setter
 public class BaseEntity {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    /**
+     * Ids are mapped by each entity, each with a generator of its own name over its table's pooled
+     * sequence; this is the block size they are declared with.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
 
     private String createdBy;
     @LastModifiedBy private String lastModifiedBy;
@@ -40,6 +41,15 @@ public class BaseEntity {
     @Column(name = "soft_delete", nullable = false)
     private Boolean softDelete;
 
+    /** Bumped on every update; also the source of the conditional-GET ETags. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "last_modified_on", nullable = false)
+    private Instant lastModifiedOn;
+
     @PrePersist
     public void prePersist() {
         ZonedDateTime zonedDateTime = ZonedDateTime.now();
@@ -2,22 +2,30 @@ package com.intellisoft.digitalhealthbackend.models;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Date;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.format.annotation.DateTimeFormat;
 
 @Entity
@@ -26,9 +34,21 @@ import org.springframework.format.annotation.DateTimeFormat;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "encounter")
 @Table(name = "tb_encounter")
 @AttributeOverride(name = "softDelete", column = @Column(name = "soft-delete", nullable = false))
 public class Encounter extends BaseEntity {
+    private static final String ID_GENERATOR = "encounter_id_generator";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_GENERATOR)
+    @SequenceGenerator(
+            name = ID_GENERATOR,
+            sequenceName = "seq_encounter",
+            allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
+    private Long id;
 
     @Column(nullable = false, name = "encounter-start")
     private LocalDateTime start;
@@ -38,9 +58,10 @@ public class Encounter extends BaseEntity {
 
     @Column(name = "encounter_date", nullable = false)
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-    private Date encounterDate;
+    private LocalDate encounterDate;
 
     @OneToMany(mappedBy = "encounter", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "encounter-observations")
     private List<Observation> observations;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -3,10 +3,13 @@ package com.intellisoft.digitalhealthbackend.models;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.intellisoft.digitalhealthbackend.enums.Gender;
 import jakarta.persistence.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.format.annotation.DateTimeFormat;
 
 @Entity
@@ -15,8 +18,20 @@ import org.springframework.format.annotation.DateTimeFormat;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "patient")
 @Table(name = "tb_patient")
 public class Patient extends BaseEntity {
+    private static final String ID_GENERATOR = "patient_id_generator";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_GENERATOR)
+    @SequenceGenerator(
+            name = ID_GENERATOR,
+            sequenceName = "seq_patient",
+            allocationSize = BaseEntity.ID_ALLOCATION_SIZE)
+    private Long id;
 
     @Column(name = "identifier", unique = true, nullable = false)
     private Long identifier;
@@ -33,7 +48,7 @@ public class Patient extends BaseEntity {
 
     @Column(name = "birth_date")
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-    private Date birthDate;
+    private LocalDate birthDate;
 
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
     @Column(nullable = false)
@@ -1,24 +1,107 @@
 package com.intellisoft.digitalhealthbackend.repository;
 
+import com.intellisoft.digitalhealthbackend.dto.ClinicalHistoryRow;
+import com.intellisoft.digitalhealthbackend.dto.PatientEncounter;
+import com.intellisoft.digitalhealthbackend.dto.RowVersion;
 import com.intellisoft.digitalhealthbackend.models.Encounter;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface EncounterRepository extends JpaRepository<Encounter, Long> {
-    Optional<Encounter> findByIdAndSoftDeleteFalse(Long encounterId);
+    /**
+     * Loads through {@link #findById}, so an encounter in the second-level cache costs no query;
+     * the soft-delete flag is checked on the entity.
+     */
+    default Optional<Encounter> findByIdAndSoftDeleteFalse(Long encounterId) {
+        return findById(encounterId)
+                .filter(encounter -> Boolean.FALSE.equals(encounter.getSoftDelete()));
+    }
 
+    List<Encounter> findByPatientIdOrderById(Long patientId);
+
+    /** Versions of the rows {@link #findByPatientIdOrderById} returns, in the same order. */
+    @Query(
+            "SELECT new com.intellisoft.digitalhealthbackend.dto.RowVersion(e.id, e.version,"
+                    + " e.lastModifiedOn) FROM Encounter e WHERE e.patient.id = :patientId ORDER"
+                    + " BY e.id")
+    List<RowVersion> findVersionsByPatientIdOrderById(@Param("patientId") Long patientId);
+
+    /**
+     * Patient of an active encounter, from the cached encounter's foreign key: the patient itself
+     * is not loaded.
+     */
+    default Optional<Long> findPatientIdByIdAndSoftDeleteFalse(Long encounterId) {
+        return findByIdAndSoftDeleteFalse(encounterId)
+                .map(encounter -> encounter.getPatient().getId());
+    }
+
+    /** Set-based variant of {@link #findPatientIdByIdAndSoftDeleteFalse} for queued writes. */
+    @Query(
+            "SELECT new com.intellisoft.digitalhealthbackend.dto.PatientEncounter(e.patient.id,"
+                    + " e.id) FROM Encounter e WHERE e.id IN :encounterIds AND e.softDelete ="
+                    + " false")
+    List<PatientEncounter> findPatientEncountersByIdIn(
+            @Param("encounterIds") Collection<Long> encounterIds);
+
+    /**
+     * First phase of the encounter search: pages over ids only, so the database applies
+     * LIMIT/OFFSET. Fetching observations in the same query would force Hibernate to paginate in
+     * memory (HHH90003004).
+     */
     @Query(
-            "SELECT e FROM Encounter e LEFT JOIN FETCH e.observations WHERE e.patient.id ="
-                    + " :patientId AND e.softDelete = false")
-    Page<Encounter> findByPatientIdAndSoftDeleteFalse(
-            @Param("patientId") Long patientId, Pageable pageable);
+            value =
+                    "SELECT e.id FROM Encounter e WHERE e.patient.id = :patientId AND e.softDelete"
+                            + " = false ORDER BY e.start DESC, e.id DESC",
+            countQuery =
+                    "SELECT COUNT(e) FROM Encounter e WHERE e.patient.id = :patientId AND"
+                            + " e.softDelete = false")
+    Page<Long> findIdPageByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    /** Keyset variant of {@link #findIdPageByPatientId}: the newest encounters first. */
+    @Query(
+            "SELECT e.id FROM Encounter e WHERE e.patient.id = :patientId AND e.softDelete = false"
+                    + " ORDER BY e.start DESC, e.id DESC")
+    List<Long> findFirstIdsByPatientId(@Param("patientId") Long patientId, Limit limit);
+
+    /** Keyset page of encounter ids strictly after the {@code (start, id)} cursor. */
+    @Query(
+            "SELECT e.id FROM Encounter e WHERE e.patient.id = :patientId AND e.softDelete = false"
+                    + " AND (e.start < :start OR (e.start = :start AND e.id < :id)) ORDER BY"
+                    + " e.start DESC, e.id DESC")
+    List<Long> findIdsByPatientIdAfter(
+            @Param("patientId") Long patientId,
+            @Param("start") LocalDateTime start,
+            @Param("id") Long id,
+            Limit limit);
+
+    /** Second phase: loads one page of encounters together with their observations. */
+    @Query("SELECT e FROM Encounter e LEFT JOIN FETCH e.observations WHERE e.id IN :ids")
+    List<Encounter> findAllWithObservationsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query(
             "SELECT COUNT(e) FROM Encounter e WHERE e.patient.id = :patientId AND e.softDelete ="
                     + " false")
     long countByPatientIdAndSoftDeleteFalse(@Param("patientId") Long patientId);
+
+    /** Forward-only cursor over a patient's history; must be consumed inside a transaction. */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(
+            "SELECT new com.intellisoft.digitalhealthbackend.dto.ClinicalHistoryRow(e.id, e.start,"
+                    + " e.end, e.encounterDate, o.id, o.code, o.value, o.effectiveDateTime) FROM"
+                    + " Encounter e LEFT JOIN e.observations o ON o.softDelete = false WHERE"
+                    + " e.patient.id = :patientId AND e.softDelete = false ORDER BY e.start, e.id,"
+                    + " o.effectiveDateTime, o.id")
+    Stream<ClinicalHistoryRow> streamClinicalHistory(@Param("patientId") Long patientId);
 }
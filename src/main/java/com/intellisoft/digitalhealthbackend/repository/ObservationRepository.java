@@ -1,11 +1,42 @@
 package com.intellisoft.digitalhealthbackend.repository;
 
+import com.intellisoft.digitalhealthbackend.dto.RowVersion;
 import com.intellisoft.digitalhealthbackend.models.Observation;
-import com.intellisoft.digitalhealthbackend.models.Patient;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ObservationRepository extends JpaRepository<Observation, Long> {
-    Page<Observation> findObservationByPatientAndSoftDeleteFalse(Patient patientId, Pageable pageable);
+    Page<Observation> findByPatientIdAndSoftDeleteFalse(Long patientId, Pageable pageable);
+
+    /** Versions of a patient's most recently added active observations, newest first. */
+    @Query(
+            "SELECT new com.intellisoft.digitalhealthbackend.dto.RowVersion(o.id, o.version,"
+                    + " o.lastModifiedOn) FROM Observation o WHERE o.patient.id = :patientId AND"
+                    + " o.softDelete = false ORDER BY o.id DESC")
+    List<RowVersion> findLatestVersionsByPatientId(
+            @Param("patientId") Long patientId, Limit limit);
+
+    /** First keyset page of a patient's observations, most recent first. */
+    @Query(
+            "SELECT o FROM Observation o WHERE o.patient.id = :patientId AND o.softDelete = false"
+                    + " ORDER BY o.effectiveDateTime DESC, o.id DESC")
+    List<Observation> findFirstByPatientId(@Param("patientId") Long patientId, Limit limit);
+
+    /** Keyset page of observations strictly after the {@code (effectiveDateTime, id)} cursor. */
+    @Query(
+            "SELECT o FROM Observation o WHERE o.patient.id = :patientId AND o.softDelete = false"
+                    + " AND (o.effectiveDateTime < :effectiveDateTime OR (o.effectiveDateTime ="
+                    + " :effectiveDateTime AND o.id < :id)) ORDER BY o.effectiveDateTime DESC,"
+                    + " o.id DESC")
+    List<Observation> findByPatientIdAfter(
+            @Param("patientId") Long patientId,
+            @Param("effectiveDateTime") LocalDateTime effectiveDateTime,
+            @Param("id") Long id,
+            Limit limit);
 }
@@ -1,17 +1,37 @@
 package com.intellisoft.digitalhealthbackend.repository;
 
+import com.intellisoft.digitalhealthbackend.dto.PatientIdentity;
 import com.intellisoft.digitalhealthbackend.models.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.util.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, PatientUpsertRepository {
+    /** Query cache region of the demographic search, evicted by writes that bypass Hibernate. */
+    String DEMOGRAPHICS_CACHE_REGION = "patient-demographics";
+
     Optional<Patient> findByIdentifierAndSoftDeleteFalse(Long identifier);
 
-    Optional<Patient> findByIdAndSoftDeleteFalse(Long id);
+    /** Loads through {@link #findById}, so a patient in the second-level cache costs no query. */
+    default Optional<Patient> findByIdAndSoftDeleteFalse(Long id) {
+        return findById(id).filter(patient -> Boolean.FALSE.equals(patient.getSoftDelete()));
+    }
+
+    boolean existsByIdAndSoftDeleteFalse(Long id);
 
-    Optional<Patient> findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(String family, String givenName, Long identifier, Date birthDate);
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = DEMOGRAPHICS_CACHE_REGION)
+    })
+    Optional<Patient> findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(String family, String givenName, Long identifier, LocalDate birthDate);
 
     Optional<Patient> findByIdentifier(Long identifier);
+
+    List<PatientIdentity> findByIdentifierIn(Collection<Long> identifiers);
 }
@@ -0,0 +1,13 @@
+package com.intellisoft.digitalhealthbackend.repository;
+
+import com.intellisoft.digitalhealthbackend.dto.PatientUpsert;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+
+public interface PatientUpsertRepository {
+    /**
+     * Inserts the patient, or restores and overwrites a soft-deleted patient with the same
+     * identifier, in one statement. An active patient with that identifier, including one inserted
+     * concurrently, is left alone and the result is {@code REJECTED}.
+     */
+    PatientUpsert upsert(Patient patient);
+}
@@ -0,0 +1,109 @@
+package com.intellisoft.digitalhealthbackend.repository;
+
+import com.intellisoft.digitalhealthbackend.dto.PatientUpsert;
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
+import com.intellisoft.digitalhealthbackend.enums.BulkRowStatus;
+import com.intellisoft.digitalhealthbackend.enums.Gender;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import java.sql.Date;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+class PatientUpsertRepositoryImpl implements PatientUpsertRepository {
+    /**
+     * Restores set {@code last_modified_date} and inserts leave it empty, which is how a returned
+     * row tells the two apart. A concurrent insert of the same identifier makes the losing MERGE
+     * fail on the unique constraint instead of returning nothing. Restores bump the row version
+     * themselves, as Hibernate does for updates it issues. The id of an inserted row comes from
+     * Hibernate's pooled generator rather than the column default: every {@code NEXT VALUE FOR
+     * seq_patient} advances the sequence by a whole allocation block, so the default would spend
+     * one block per create.
+     */
+    private static final String UPSERT_PATIENT =
+            "SELECT id, identifier, given_name, family_name, gender, birth_date,"
+                    + " last_modified_date IS NULL, version, last_modified_on FROM FINAL TABLE"
+                    + " (MERGE INTO \"tb_patient\" p"
+                    + " USING (VALUES (CAST(?1 AS BIGINT), CAST(?2 AS VARCHAR(100)), CAST(?3 AS"
+                    + " VARCHAR(100)), CAST(?4 AS VARCHAR(10)), CAST(?5 AS DATE), CAST(?6 AS"
+                    + " BIGINT))) s(identifier, given_name, family_name, gender, birth_date, id)"
+                    + " ON p.identifier = s.identifier WHEN MATCHED AND p.\"soft_delete\" THEN"
+                    + " UPDATE SET given_name = s.given_name, family_name = s.family_name, gender"
+                    + " = s.gender, birth_date = s.birth_date, \"soft_delete\" = FALSE,"
+                    + " last_modified_date = CURRENT_DATE, version = p.version + 1,"
+                    + " last_modified_on = CURRENT_TIMESTAMP WHEN NOT MATCHED THEN INSERT"
+                    + " (id, identifier, given_name, family_name, gender, birth_date) VALUES"
+                    + " (s.id, s.identifier, s.given_name, s.family_name, s.gender,"
+                    + " s.birth_date))";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public PatientUpsert upsert(Patient patient) {
+        List<?> rows;
+        try {
+            rows =
+                    entityManager
+                            .createNativeQuery(UPSERT_PATIENT)
+                            .setParameter(1, patient.getIdentifier())
+                            .setParameter(2, patient.getGivenName())
+                            .setParameter(3, patient.getFamilyName())
+                            .setParameter(4, patient.getGender().name())
+                            .setParameter(
+                                    5,
+                                    patient.getBirthDate() == null
+                                            ? null
+                                            : Date.valueOf(patient.getBirthDate()))
+                            .setParameter(6, nextId(patient))
+                            .getResultList();
+        } catch (PersistenceException e) {
+            if (isUniqueViolation(e)) {
+                return PatientUpsert.rejected();
+            }
+            throw e;
+        }
+        if (rows.isEmpty()) {
+            return PatientUpsert.rejected();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        Date birthDate = (Date) row[5];
+        PatientView view =
+                new PatientView(
+                        ((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(),
+                        (String) row[2],
+                        (String) row[3],
+                        Gender.valueOf((String) row[4]),
+                        birthDate == null ? null : birthDate.toLocalDate(),
+                        ((Number) row[7]).longValue(),
+                        ((OffsetDateTime) row[8]).toInstant());
+        BulkRowStatus status =
+                Boolean.TRUE.equals(row[6]) ? BulkRowStatus.CREATED : BulkRowStatus.RESTORED;
+        return new PatientUpsert(status, view);
+    }
+
+    /** Draws an id from the entity's pooled generator; a restore leaves it unused. */
+    private Long nextId(Patient patient) {
+        SharedSessionContractImplementor session =
+                entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator =
+                (BeforeExecutionGenerator)
+                        session.getEntityPersister(null, patient).getGenerator();
+        return (Long) generator.generate(session, patient, null, EventType.INSERT);
+    }
+
+    private static boolean isUniqueViolation(PersistenceException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.intellisoft.digitalhealthbackend.service;
+
+import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+
+public interface ObservationIngestionService {
+    UniversalResponse submitObservation(Long encounterId, ObservationWrapper observationWrapper);
+
+    UniversalResponse retrieveReceipt(String trackingId);
+
+    UniversalResponse retrieveQueueStats();
+}
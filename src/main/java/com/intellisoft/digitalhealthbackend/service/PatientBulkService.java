@@ -0,0 +1,8 @@
+package com.intellisoft.digitalhealthbackend.service;
+
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import java.io.InputStream;
+
+public interface PatientBulkService {
+    UniversalResponse importPatients(InputStream payload);
+}
@@ -0,0 +1,149 @@
+package com.intellisoft.digitalhealthbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.intellisoft.digitalhealthbackend.dto.PatientCacheStats;
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded read-through cache of active patients, keyed by id with a secondary identifier index.
+ * Only {@link PatientView} copies are cached, never managed entities, and soft-deleted or missing
+ * patients are not cached at all. Writers call {@link #evict} so the next read goes to the
+ * database; it also drops the patient from Hibernate's second-level cache, which the MERGE upsert
+ * and the bulk JDBC restores bypass. The views stay cached here rather than read back from the
+ * "patient" region because a hit then needs neither a session nor a connection. Hits, misses and
+ * evictions are published as {@code cache.*} meters tagged {@code cache="patient-view"}.
+ */
+@Component
+public class PatientCache {
+    private final PatientRepository patientRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Cache<Long, PatientView> patientsById;
+    private final Cache<Long, Long> idsByIdentifier;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PatientCache(
+            PatientRepository patientRepository,
+            EntityManagerFactory entityManagerFactory,
+            MeterRegistry meterRegistry,
+            @Value("${patient.cache.maximum-size:10000}") long maximumSize,
+            @Value("${patient.cache.ttl:10m}") Duration ttl) {
+        this.patientRepository = patientRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.patientsById =
+                Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build();
+        this.idsByIdentifier =
+                Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, patientsById, "patient-view");
+    }
+
+    public Optional<PatientView> findById(Long patientId) {
+        PatientView cached = patientsById.getIfPresent(patientId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return patientRepository.findByIdAndSoftDeleteFalse(patientId).map(this::put);
+    }
+
+    /** Same as {@link #findById} but throws the service's "Patient not found" error on a miss. */
+    public PatientView getById(Long patientId) {
+        return findById(patientId).orElseThrow(() -> new PatientException("Patient not found"));
+    }
+
+    public Optional<PatientView> findByIdentifier(Long identifier) {
+        Long patientId = idsByIdentifier.getIfPresent(identifier);
+        if (patientId != null) {
+            Optional<PatientView> patient = findById(patientId);
+            if (patient.isPresent() && Objects.equals(patient.get().identifier(), identifier)) {
+                return patient;
+            }
+            idsByIdentifier.invalidate(identifier);
+        }
+        return patientRepository.findByIdentifierAndSoftDeleteFalse(identifier).map(this::put);
+    }
+
+    /**
+     * Drops the entries for a patient that is being changed, along with its second-level cache entry
+     * and every cached demographic search, which may hold its old state or an empty result for it.
+     * When called inside a transaction the entries are dropped again once it completes, so a
+     * concurrent read of the old row cannot repopulate a cache with it.
+     */
+    public void evict(Long patientId, Long... identifiers) {
+        List<Long> patientIds = patientId == null ? List.of() : List.of(patientId);
+        evictEntries(patientIds, identifiers);
+    }
+
+    /** Same as {@link #evict(Long, Long...)} for patients changed together, e.g. bulk restores. */
+    public void evictAll(Collection<Long> patientIds) {
+        evictEntries(List.copyOf(patientIds));
+    }
+
+    private void evictEntries(List<Long> patientIds, Long... identifiers) {
+        invalidations.incrementAndGet();
+        invalidate(patientIds, identifiers);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            invalidate(patientIds, identifiers);
+                        }
+                    });
+        }
+    }
+
+    public PatientCacheStats stats() {
+        CacheStats stats = patientsById.stats();
+        return PatientCacheStats.builder()
+                .size(patientsById.estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictions(stats.evictionCount())
+                .invalidations(invalidations.get())
+                .build();
+    }
+
+    private PatientView put(Patient patient) {
+        PatientView view = PatientView.from(patient);
+        patientsById.put(view.id(), view);
+        idsByIdentifier.put(view.identifier(), view.id());
+        return view;
+    }
+
+    private void invalidate(List<Long> patientIds, Long... identifiers) {
+        patientsById.invalidateAll(patientIds);
+        for (Long identifier : identifiers) {
+            if (identifier != null) {
+                idsByIdentifier.invalidate(identifier);
+            }
+        }
+        org.hibernate.Cache secondLevelCache =
+                entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        for (Long patientId : patientIds) {
+            secondLevelCache.evictEntityData(Patient.class, patientId);
+        }
+        secondLevelCache.evictQueryRegion(PatientRepository.DEMOGRAPHICS_CACHE_REGION);
+    }
+}
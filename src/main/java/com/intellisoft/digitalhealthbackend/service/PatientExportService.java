@@ -0,0 +1,7 @@
+package com.intellisoft.digitalhealthbackend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface PatientExportService {
+    StreamingResponseBody exportPatientHistory(Long patientId);
+}
@@ -3,13 +3,19 @@ package com.intellisoft.digitalhealthbackend.service;
 import com.intellisoft.digitalhealthbackend.dto.EncounterWrapper;
 import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
 import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import com.intellisoft.digitalhealthbackend.dto.ResourceVersion;
 import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import java.util.List;
+import java.util.Optional;
 
 public interface PatientService {
     UniversalResponse createPatient(PatientWrapper patientWrapper);
 
     UniversalResponse retrievePatient(Long patientId);
 
+    /** Empty when there is no active patient, so the read itself reports the error. */
+    Optional<ResourceVersion> retrievePatientVersion(Long patientId);
+
     UniversalResponse updatePatient(Long patientId, PatientWrapper patientWrapper);
 
     UniversalResponse deletePatient(Long patientId);
@@ -18,11 +24,23 @@ public interface PatientService {
 
     UniversalResponse addEncounterObservation(Long encounterId, ObservationWrapper observationWrapper);
 
+    UniversalResponse addEncounterObservations(Long encounterId, List<ObservationWrapper> observationWrappers);
+
     UniversalResponse endPatientEncounter(Long encounterId, String endEncounter);
 
     UniversalResponse retrievePatientEncountersAndObservation(String family, String givenName, Long identifier, String date, int page, int size);
 
+    UniversalResponse scrollPatientEncountersAndObservation(String family, String givenName, Long identifier, String date, String cursor, int size);
+
     UniversalResponse viewPatientEncounters(Long patientId);
 
+    Optional<ResourceVersion> viewPatientEncountersVersion(Long patientId);
+
     UniversalResponse viewPatientObservations(Long patientId);
+
+    Optional<ResourceVersion> viewPatientObservationsVersion(Long patientId);
+
+    UniversalResponse scrollPatientObservations(Long patientId, String cursor, int size);
+
+    UniversalResponse retrievePatientCacheStats();
 }
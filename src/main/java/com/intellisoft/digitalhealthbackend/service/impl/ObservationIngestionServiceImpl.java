@@ -0,0 +1,451 @@
+package com.intellisoft.digitalhealthbackend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.intellisoft.digitalhealthbackend.dto.IngestionQueueStats;
+import com.intellisoft.digitalhealthbackend.dto.IngestionReceipt;
+import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.enums.IngestionStatus;
+import com.intellisoft.digitalhealthbackend.exceptions.IngestionUnavailableException;
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import com.intellisoft.digitalhealthbackend.models.Observation;
+import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
+import com.intellisoft.digitalhealthbackend.repository.ObservationRepository;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import com.intellisoft.digitalhealthbackend.service.ObservationIngestionService;
+import com.intellisoft.digitalhealthbackend.utils.DateParser;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind path for high-frequency observations. Submissions are validated and put on a bounded
+ * queue; a single flusher thread stores them in one transaction per batch of {@code batch-size}
+ * rows or {@code flush-interval}, whichever comes first, so many readings share one commit. A full
+ * queue is reported as {@link IngestionUnavailableException} instead of blocking the request.
+ *
+ * <p>The rows were already accepted, so a batch whose transaction fails in the database is retried
+ * with exponential backoff; if it still fails, its rows are stored one per transaction and only
+ * those that fail alone are rejected.
+ *
+ * <p>Queue depth, flush duration and per-outcome observation counts are also published as {@code
+ * patient.ingestion.*} meters.
+ *
+ * <p>Runs as a {@link SmartLifecycle} in a phase below the web server's, so on shutdown the server
+ * stops taking requests first and the queue is then drained before the datasource closes.
+ */
+@Slf4j
+@Service
+public class ObservationIngestionServiceImpl
+        implements ObservationIngestionService, SmartLifecycle {
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final EncounterRepository encounterRepository;
+    private final PatientRepository patientRepository;
+    private final ObservationRepository observationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObservationRules observationRules;
+    private final BlockingQueue<PendingObservation> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration shutdownTimeout;
+    private final int retryAttempts;
+    private final long retryBackoffNanos;
+    private final Cache<String, IngestionReceipt> receipts;
+    private final Object admission = new Object();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Timer flushTimer;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public ObservationIngestionServiceImpl(
+            EncounterRepository encounterRepository,
+            PatientRepository patientRepository,
+            ObservationRepository observationRepository,
+            TransactionTemplate transactionTemplate,
+            ObservationRules observationRules,
+            @Value("${patient.ingestion.capacity:10000}") int capacity,
+            @Value("${patient.ingestion.batch-size:200}") int batchSize,
+            @Value("${patient.ingestion.flush-interval:100ms}") Duration flushInterval,
+            @Value("${patient.ingestion.shutdown-timeout:30s}") Duration shutdownTimeout,
+            @Value("${patient.ingestion.retry-attempts:3}") int retryAttempts,
+            @Value("${patient.ingestion.retry-backoff:200ms}") Duration retryBackoff,
+            @Value("${patient.ingestion.receipt-ttl:10m}") Duration receiptTtl,
+            MeterRegistry meterRegistry) {
+        this.encounterRepository = encounterRepository;
+        this.patientRepository = patientRepository;
+        this.observationRepository = observationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.observationRules = observationRules;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.retryAttempts = retryAttempts;
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        // receipts stay readable after their row has left the queue
+        this.receipts =
+                Caffeine.newBuilder()
+                        .maximumSize(10L * capacity)
+                        .expireAfterWrite(receiptTtl)
+                        .build();
+        Gauge.builder("patient.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Observations waiting to be flushed")
+                .register(meterRegistry);
+        registerOutcome(meterRegistry, "accepted", accepted);
+        registerOutcome(meterRegistry, "throttled", throttled);
+        registerOutcome(meterRegistry, "stored", stored);
+        registerOutcome(meterRegistry, "rejected", rejected);
+        this.flushTimer =
+                Timer.builder("patient.ingestion.flush")
+                        .description("Time taken to store one batch of observations")
+                        .register(meterRegistry);
+    }
+
+    private static void registerOutcome(
+            MeterRegistry meterRegistry, String outcome, AtomicLong count) {
+        FunctionCounter.builder("patient.ingestion.observations", count, AtomicLong::get)
+                .description("Observations by ingestion outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UniversalResponse submitObservation(
+            Long encounterId, ObservationWrapper observationWrapper) {
+        String problem = observationRules.problem(observationWrapper, LocalDateTime.now());
+        if (problem != null) {
+            throw new PatientException(problem);
+        }
+        PendingObservation observation =
+                new PendingObservation(
+                        UUID.randomUUID().toString(),
+                        encounterId,
+                        observationWrapper.code(),
+                        observationWrapper.value(),
+                        DateParser.parseDateTime(observationWrapper.effectiveDateTime()));
+        IngestionReceipt receipt =
+                IngestionReceipt.builder()
+                        .trackingId(observation.trackingId())
+                        .encounterId(encounterId)
+                        .status(IngestionStatus.QUEUED)
+                        .build();
+        // registered before the offer so the flusher's outcome cannot be overwritten
+        receipts.put(receipt.trackingId(), receipt);
+        synchronized (admission) {
+            if (!running) {
+                receipts.invalidate(receipt.trackingId());
+                throw new IngestionUnavailableException("Observation ingestion is shutting down");
+            }
+            if (!queue.offer(observation)) {
+                receipts.invalidate(receipt.trackingId());
+                throttled.incrementAndGet();
+                throw new IngestionUnavailableException(
+                        "Observation queue is full, retry later");
+            }
+        }
+        accepted.incrementAndGet();
+        return UniversalResponse.builder()
+                .status(HttpStatus.ACCEPTED.value())
+                .message("Observation accepted")
+                .data(receipt)
+                .build();
+    }
+
+    @Override
+    public UniversalResponse retrieveReceipt(String trackingId) {
+        IngestionReceipt receipt = receipts.getIfPresent(trackingId);
+        if (receipt == null) {
+            throw new PatientException("Unknown or expired tracking id");
+        }
+        return UniversalResponse.builder()
+                .status(HttpStatus.OK.value())
+                .message("Observation ingestion status")
+                .data(receipt)
+                .build();
+    }
+
+    @Override
+    public UniversalResponse retrieveQueueStats() {
+        long flushCount = flushTimer.count();
+        return UniversalResponse.builder()
+                .status(HttpStatus.OK.value())
+                .message("Observation ingestion statistics")
+                .data(
+                        IngestionQueueStats.builder()
+                                .queueDepth(queue.size())
+                                .capacity(capacity)
+                                .accepted(accepted.get())
+                                .throttled(throttled.get())
+                                .stored(stored.get())
+                                .rejected(rejected.get())
+                                .flushes(flushCount)
+                                .lastFlushMillis(lastFlushNanos / 1e6)
+                                .maxFlushMillis(maxFlushNanos / 1e6)
+                                .averageFlushMillis(
+                                        flushCount == 0
+                                                ? 0
+                                                : flushTimer.totalTime(TimeUnit.MILLISECONDS)
+                                                        / flushCount)
+                                .build())
+                .build();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "observation-ingestion");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        synchronized (admission) {
+            running = false;
+        }
+        try {
+            flusher.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn(
+                    "Observation ingestion did not drain within {}, {} observations dropped",
+                    shutdownTimeout,
+                    queue.size());
+            flusher.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // the web server stops in phase DEFAULT_PHASE - 2048
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        List<PendingObservation> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingObservation first =
+                        queue.poll(maxWait(flushIntervalNanos), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                queue.drainTo(batch, batchSize - batch.size());
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingObservation next = queue.poll(maxWait(remaining), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                        queue.drainTo(batch, batchSize - batch.size());
+                    }
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                flush(batch);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Observation ingestion flush loop failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /** Waits are capped so that {@link #stop} is noticed promptly even with a long interval. */
+    private static long maxWait(long nanos) {
+        return Math.min(nanos, MAX_WAIT_NANOS);
+    }
+
+    private void flush(List<PendingObservation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        if (!storeWithRetry(batch)) {
+            if (batch.size() == 1) {
+                reject(batch.get(0), "Failed to store observation");
+            } else {
+                batch.forEach(this::storeAlone);
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        flushTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        lastFlushNanos = elapsed;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+    }
+
+    /**
+     * Stores the rows, retrying with a doubling backoff while the database or the transaction fails
+     * (pool timeouts, lock waits). Returns false once the attempts are used up or on other errors.
+     */
+    private boolean storeWithRetry(List<PendingObservation> rows) {
+        long backoffNanos = retryBackoffNanos;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                store(rows);
+                return true;
+            } catch (DataAccessException | TransactionException e) {
+                if (attempt >= retryAttempts) {
+                    log.error(
+                            "Failed to store {} queued observations after {} attempts",
+                            rows.size(),
+                            attempt,
+                            e);
+                    return false;
+                }
+                log.warn(
+                        "Storing {} queued observations failed (attempt {} of {}): {}",
+                        rows.size(),
+                        attempt,
+                        retryAttempts,
+                        e.toString());
+                try {
+                    TimeUnit.NANOSECONDS.sleep(backoffNanos);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoffNanos *= 2;
+            } catch (RuntimeException e) {
+                log.error("Failed to store {} queued observations", rows.size(), e);
+                return false;
+            }
+        }
+    }
+
+    /** Last resort for a failing batch: one transaction per row, so a bad row fails alone. */
+    private void storeAlone(PendingObservation observation) {
+        try {
+            store(List.of(observation));
+        } catch (RuntimeException e) {
+            log.warn("Failed to store queued observation {}", observation.trackingId(), e);
+            reject(observation, "Failed to store observation");
+        }
+    }
+
+    /** Writes the rows in one transaction and records their receipts; throws if it fails. */
+    private void store(List<PendingObservation> rows) {
+        List<PendingObservation> unknownEncounter = new ArrayList<>();
+        Map<String, Long> observationIds =
+                transactionTemplate.execute(status -> write(rows, unknownEncounter));
+        unknownEncounter.forEach(
+                observation -> reject(observation, "Encounter with the given id does not exist"));
+        observationIds.forEach(
+                (trackingId, observationId) ->
+                        receipts.asMap()
+                                .computeIfPresent(
+                                        trackingId,
+                                        (key, receipt) ->
+                                                receipt.toBuilder()
+                                                        .status(IngestionStatus.STORED)
+                                                        .observationId(observationId)
+                                                        .build()));
+        stored.addAndGet(observationIds.size());
+    }
+
+    /**
+     * Inserts the batch and returns the new observation id of every stored tracking id; rows whose
+     * encounter does not exist are added to {@code unknownEncounter} instead.
+     */
+    private Map<String, Long> write(
+            List<PendingObservation> batch, List<PendingObservation> unknownEncounter) {
+        Set<Long> encounterIds = new HashSet<>();
+        batch.forEach(observation -> encounterIds.add(observation.encounterId()));
+        Map<Long, Long> patientIds = new HashMap<>();
+        encounterRepository
+                .findPatientEncountersByIdIn(encounterIds)
+                .forEach(found -> patientIds.put(found.encounterId(), found.patientId()));
+
+        List<PendingObservation> accepted = new ArrayList<>(batch.size());
+        List<Observation> observations = new ArrayList<>(batch.size());
+        for (PendingObservation observation : batch) {
+            Long patientId = patientIds.get(observation.encounterId());
+            if (patientId == null) {
+                unknownEncounter.add(observation);
+                continue;
+            }
+            accepted.add(observation);
+            observations.add(
+                    Observation.builder()
+                            .code(observation.code())
+                            .value(observation.value())
+                            .effectiveDateTime(observation.effectiveDateTime())
+                            .patient(patientRepository.getReferenceById(patientId))
+                            .encounter(
+                                    encounterRepository.getReferenceById(
+                                            observation.encounterId()))
+                            .build());
+        }
+        List<Observation> saved = observationRepository.saveAll(observations);
+        Map<String, Long> observationIds = new HashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            observationIds.put(accepted.get(i).trackingId(), saved.get(i).getId());
+        }
+        return observationIds;
+    }
+
+    private void reject(PendingObservation observation, String message) {
+        rejected.incrementAndGet();
+        receipts.asMap()
+                .computeIfPresent(
+                        observation.trackingId(),
+                        (key, receipt) ->
+                                receipt.toBuilder()
+                                        .status(IngestionStatus.REJECTED)
+                                        .message(message)
+                                        .build());
+    }
+
+    private record PendingObservation(
+            String trackingId,
+            Long encounterId,
+            String code,
+            String value,
+            LocalDateTime effectiveDateTime) {}
+}
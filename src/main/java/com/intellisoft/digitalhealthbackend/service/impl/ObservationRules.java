@@ -0,0 +1,47 @@
+package com.intellisoft.digitalhealthbackend.service.impl;
+
+import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.utils.DateParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks for submitted observations, shared by the synchronous and queued write paths: the
+ * constraints declared on {@link ObservationWrapper}, then the effective date time, which the
+ * wrapper carries as text.
+ */
+@Component
+@RequiredArgsConstructor
+class ObservationRules {
+    private final Validator validator;
+
+    /** Returns what is wrong with the observation, or {@code null} when it can be stored. */
+    String problem(ObservationWrapper observationWrapper, LocalDateTime now) {
+        if (observationWrapper == null) {
+            return "Observation is mandatory";
+        }
+        Set<ConstraintViolation<ObservationWrapper>> violations =
+                validator.validate(observationWrapper);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        LocalDateTime effectiveDateTime =
+                DateParser.tryParseDateTime(observationWrapper.effectiveDateTime());
+        if (effectiveDateTime == null) {
+            return "Invalid date time format. Expected: yyyy-MM-dd HH:mm:ss (e.g.,"
+                    + " 2025-11-01 10:30:00)";
+        }
+        if (effectiveDateTime.isAfter(now)) {
+            return "Effective date and time cannot be in the future";
+        }
+        return null;
+    }
+}
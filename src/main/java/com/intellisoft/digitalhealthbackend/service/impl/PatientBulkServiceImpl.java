@@ -0,0 +1,298 @@
+package com.intellisoft.digitalhealthbackend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.intellisoft.digitalhealthbackend.dto.BulkPatientReport;
+import com.intellisoft.digitalhealthbackend.dto.BulkPatientResult;
+import com.intellisoft.digitalhealthbackend.dto.PatientIdentity;
+import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.enums.BulkRowStatus;
+import com.intellisoft.digitalhealthbackend.enums.Gender;
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import com.intellisoft.digitalhealthbackend.service.PatientBulkService;
+import com.intellisoft.digitalhealthbackend.service.PatientCache;
+import com.intellisoft.digitalhealthbackend.utils.DateParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams a JSON array or NDJSON payload of patients and writes it chunk by chunk: one identifier
+ * lookup per chunk, then batched inserts (pooled sequence ids) and JDBC batch restores inside a
+ * single transaction per chunk.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientBulkServiceImpl implements PatientBulkService {
+    private static final String RESTORE_PATIENT =
+            "UPDATE \"tb_patient\" SET given_name = ?, family_name = ?, gender = ?, birth_date = ?,"
+                    + " \"soft_delete\" = FALSE, version = version + 1, last_modified_on ="
+                    + " CURRENT_TIMESTAMP WHERE id = ?";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PatientRepository patientRepository;
+    private final PatientCache patientCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${patient.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public UniversalResponse importPatients(InputStream payload) {
+        List<BulkPatientResult> results = new ArrayList<>();
+        List<PendingPatient> chunk = new ArrayList<>(chunkSize);
+        Set<Long> seenIdentifiers = new HashSet<>();
+        int row = 0;
+        try (MappingIterator<PatientWrapper> rows =
+                objectMapper.readerFor(PatientWrapper.class).readValues(payload)) {
+            while (rows.hasNextValue()) {
+                row++;
+                PatientWrapper patientWrapper = nextPatient(rows);
+                String problem = validate(patientWrapper);
+                if (problem == null && !seenIdentifiers.add(patientWrapper.identifier())) {
+                    problem = "Duplicate identifier in payload";
+                }
+                if (problem != null) {
+                    results.add(
+                            rejected(
+                                    row,
+                                    patientWrapper == null ? null : patientWrapper.identifier(),
+                                    problem));
+                    continue;
+                }
+                chunk.add(PendingPatient.of(row, patientWrapper));
+                if (chunk.size() == chunkSize) {
+                    results.addAll(writeChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            results.add(
+                    rejected(row, null, "Malformed record, import stopped: " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            throw new PatientException("Unable to read bulk payload: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(writeChunk(chunk));
+        }
+        results.sort((left, right) -> Integer.compare(left.row(), right.row()));
+        BulkPatientReport report = report(results);
+        log.info(
+                "Bulk patient import: received={} created={} restored={} rejected={}",
+                report.received(),
+                report.created(),
+                report.restored(),
+                report.rejected());
+        return UniversalResponse.builder()
+                .status(HttpStatus.OK.value())
+                .message("Bulk patient import completed")
+                .data(report)
+                .build();
+    }
+
+    private List<BulkPatientResult> writeChunk(List<PendingPatient> chunk) {
+        return transactionTemplate.execute(status -> writeChunkInTransaction(chunk));
+    }
+
+    private List<BulkPatientResult> writeChunkInTransaction(List<PendingPatient> chunk) {
+        Map<Long, PatientIdentity> existing = new HashMap<>();
+        patientRepository
+                .findByIdentifierIn(chunk.stream().map(PendingPatient::identifier).toList())
+                .forEach(identity -> existing.put(identity.getIdentifier(), identity));
+
+        List<BulkPatientResult> results = new ArrayList<>(chunk.size());
+        List<PendingPatient> inserts = new ArrayList<>();
+        List<PendingPatient> restores = new ArrayList<>();
+        List<Long> restoreIds = new ArrayList<>();
+        for (PendingPatient patient : chunk) {
+            PatientIdentity identity = existing.get(patient.identifier());
+            if (identity == null) {
+                inserts.add(patient);
+            } else if (Boolean.TRUE.equals(identity.getSoftDelete())) {
+                restores.add(patient);
+                restoreIds.add(identity.getId());
+            } else {
+                results.add(rejected(patient.row(), patient.identifier(), "Patient already exists"));
+            }
+        }
+
+        List<Long> insertedIds = insertBatch(inserts);
+        for (int i = 0; i < inserts.size(); i++) {
+            PendingPatient patient = inserts.get(i);
+            results.add(
+                    BulkPatientResult.builder()
+                            .row(patient.row())
+                            .identifier(patient.identifier())
+                            .status(BulkRowStatus.CREATED)
+                            .patientId(insertedIds.get(i))
+                            .build());
+        }
+        restoreBatch(restores, restoreIds);
+        for (int i = 0; i < restores.size(); i++) {
+            PendingPatient patient = restores.get(i);
+            results.add(
+                    BulkPatientResult.builder()
+                            .row(patient.row())
+                            .identifier(patient.identifier())
+                            .status(BulkRowStatus.RESTORED)
+                            .patientId(restoreIds.get(i))
+                            .build());
+        }
+        return results;
+    }
+
+    private List<Long> insertBatch(List<PendingPatient> inserts) {
+        List<Patient> patients =
+                inserts.stream()
+                        .map(
+                                patient ->
+                                        Patient.builder()
+                                                .identifier(patient.identifier())
+                                                .givenName(patient.givenName())
+                                                .familyName(patient.familyName())
+                                                .gender(patient.gender())
+                                                .birthDate(patient.birthDate())
+                                                .build())
+                        .toList();
+        return patientRepository.saveAll(patients).stream().map(Patient::getId).toList();
+    }
+
+    private void restoreBatch(List<PendingPatient> restores, List<Long> restoreIds) {
+        if (restores.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+                RESTORE_PATIENT,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingPatient patient = restores.get(i);
+                        ps.setString(1, patient.givenName());
+                        ps.setString(2, patient.familyName());
+                        ps.setString(3, patient.gender().name());
+                        ps.setDate(4, Date.valueOf(patient.birthDate()));
+                        ps.setLong(5, restoreIds.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return restores.size();
+                    }
+                });
+        patientCache.evictAll(restoreIds);
+    }
+
+    /**
+     * Reads the next row, giving null for a JSON null: binding one fails, and the iterator then
+     * resumes at the following row, so the null is rejected on its own.
+     */
+    private static PatientWrapper nextPatient(MappingIterator<PatientWrapper> rows)
+            throws IOException {
+        if (rows.getParser().currentToken() != JsonToken.VALUE_NULL) {
+            return rows.nextValue();
+        }
+        try {
+            return rows.nextValue();
+        } catch (MismatchedInputException e) {
+            return null;
+        }
+    }
+
+    private String validate(PatientWrapper patientWrapper) {
+        if (patientWrapper == null) {
+            return "Record must be a patient object";
+        }
+        Set<ConstraintViolation<PatientWrapper>> violations = validator.validate(patientWrapper);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!"MALE".equals(patientWrapper.gender()) && !"FEMALE".equals(patientWrapper.gender())) {
+            return "Gender must be MALE or FEMALE";
+        }
+        if (DateParser.tryParseDate(patientWrapper.birthDate()) == null) {
+            return "Invalid date format. Expected: yyyy-MM-dd (e.g., 1996-08-09), but got: "
+                    + patientWrapper.birthDate();
+        }
+        return null;
+    }
+
+    private static BulkPatientResult rejected(int row, Long identifier, String message) {
+        return BulkPatientResult.builder()
+                .row(row)
+                .identifier(identifier)
+                .status(BulkRowStatus.REJECTED)
+                .message(message)
+                .build();
+    }
+
+    private static BulkPatientReport report(List<BulkPatientResult> results) {
+        int created = 0;
+        int restored = 0;
+        int rejected = 0;
+        for (BulkPatientResult result : results) {
+            switch (result.status()) {
+                case CREATED -> created++;
+                case RESTORED -> restored++;
+                case REJECTED -> rejected++;
+            }
+        }
+        return BulkPatientReport.builder()
+                .received(results.size())
+                .created(created)
+                .restored(restored)
+                .rejected(rejected)
+                .results(results)
+                .build();
+    }
+
+    private record PendingPatient(
+            int row,
+            Long identifier,
+            String givenName,
+            String familyName,
+            Gender gender,
+            LocalDate birthDate) {
+
+        static PendingPatient of(int row, PatientWrapper patientWrapper) {
+            return new PendingPatient(
+                    row,
+                    patientWrapper.identifier(),
+                    patientWrapper.givenName(),
+                    patientWrapper.familyName(),
+                    Gender.valueOf(patientWrapper.gender()),
+                    DateParser.parseDate(patientWrapper.birthDate()));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.intellisoft.digitalhealthbackend.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellisoft.digitalhealthbackend.dto.ClinicalHistoryRow;
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import com.intellisoft.digitalhealthbackend.service.PatientExportService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes a patient's encounters and observations as NDJSON straight from a database cursor. Rows
+ * are read as projections, never as managed entities, so memory use does not grow with history.
+ */
+@Service
+@RequiredArgsConstructor
+public class PatientExportServiceImpl implements PatientExportService {
+    private static final int FLUSH_EVERY_LINES = 1000;
+
+    private final PatientRepository patientRepository;
+    private final EncounterRepository encounterRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public StreamingResponseBody exportPatientHistory(Long patientId) {
+        if (!patientRepository.existsByIdAndSoftDeleteFalse(patientId)) {
+            throw new PatientException("Patient not found");
+        }
+        return outputStream ->
+                transactionTemplate.executeWithoutResult(
+                        status -> writeHistory(patientId, outputStream));
+    }
+
+    private void writeHistory(Long patientId, OutputStream outputStream) {
+        int unflushedLines = 0;
+        try (Stream<ClinicalHistoryRow> rows = encounterRepository.streamClinicalHistory(patientId);
+                JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Long currentEncounterId = null;
+            Iterator<ClinicalHistoryRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ClinicalHistoryRow row = iterator.next();
+                if (!Objects.equals(row.encounterId(), currentEncounterId)) {
+                    currentEncounterId = row.encounterId();
+                    writeEncounter(generator, row);
+                    unflushedLines++;
+                }
+                if (row.observationId() != null) {
+                    writeObservation(generator, row);
+                    unflushedLines++;
+                }
+                if (unflushedLines >= FLUSH_EVERY_LINES) {
+                    generator.flush();
+                    unflushedLines = 0;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export history of patient " + patientId, e);
+        }
+    }
+
+    private void writeEncounter(JsonGenerator generator, ClinicalHistoryRow row)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "encounter");
+        generator.writeNumberField("id", row.encounterId());
+        generator.writePOJOField("start", row.start());
+        generator.writePOJOField("end", row.end());
+        generator.writePOJOField("encounterDate", row.encounterDate());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeObservation(JsonGenerator generator, ClinicalHistoryRow row)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "observation");
+        generator.writeNumberField("id", row.observationId());
+        generator.writeNumberField("encounterId", row.encounterId());
+        generator.writeStringField("code", row.code());
+        generator.writeStringField("value", row.value());
+        generator.writePOJOField("effectiveDateTime", row.effectiveDateTime());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
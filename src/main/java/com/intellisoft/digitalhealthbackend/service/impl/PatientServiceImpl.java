@@ -1,9 +1,16 @@
 package com.intellisoft.digitalhealthbackend.service.impl;
 
+import com.intellisoft.digitalhealthbackend.dto.EncounterView;
 import com.intellisoft.digitalhealthbackend.dto.EncounterWrapper;
+import com.intellisoft.digitalhealthbackend.dto.ObservationView;
 import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.dto.PageCursor;
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
+import com.intellisoft.digitalhealthbackend.dto.PatientUpsert;
 import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import com.intellisoft.digitalhealthbackend.dto.ResourceVersion;
 import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.enums.BulkRowStatus;
 import com.intellisoft.digitalhealthbackend.enums.Gender;
 import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
 import com.intellisoft.digitalhealthbackend.models.Encounter;
@@ -12,19 +19,21 @@ import com.intellisoft.digitalhealthbackend.models.Patient;
 import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
 import com.intellisoft.digitalhealthbackend.repository.ObservationRepository;
 import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import com.intellisoft.digitalhealthbackend.service.PatientCache;
 import com.intellisoft.digitalhealthbackend.service.PatientService;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import com.intellisoft.digitalhealthbackend.utils.DateParser;
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -36,61 +45,62 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed("patient.service")
 public class PatientServiceImpl implements PatientService {
+    private static final int MAX_OBSERVATIONS_PER_BATCH = 100;
+    private static final int RECENT_OBSERVATIONS = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final PatientRepository patientRepository;
     private final EncounterRepository encounterRepository;
     private final ObservationRepository observationRepository;
+    private final PatientCache patientCache;
+    private final ObservationRules observationRules;
 
     @Override
+    @Transactional
     public UniversalResponse createPatient(PatientWrapper patientWrapper) {
+        PatientUpsert upsert;
         try {
-            Optional<Patient> optionalPatient =
-                    patientRepository.findByIdentifier(patientWrapper.identifier());
-            if (optionalPatient.isPresent()) {
-                Patient existingPatient = optionalPatient.get();
-                if (existingPatient.getSoftDelete()) {
-                    existingPatient.setSoftDelete(false);
-                    existingPatient.setBirthDate(formatDate(patientWrapper.birthDate()));
-                    existingPatient.setGender(Gender.valueOf(patientWrapper.gender()));
-                    existingPatient.setFamilyName(patientWrapper.familyName());
-                    existingPatient.setGivenName(patientWrapper.givenName());
-                    Patient restoredPatient = patientRepository.save(existingPatient);
-                    return UniversalResponse.builder()
-                            .status(HttpStatus.OK.value())
-                            .message("Patient restored and updated successfully")
-                            .data(restoredPatient)
-                            .build();
-                } else {
-                    throw new PatientException("Patient already exists");
-                }
-            }
-            Date birthDate = formatDate(patientWrapper.birthDate());
-            Patient patient =
-                    Patient.builder()
-                            .identifier(patientWrapper.identifier())
-                            .birthDate(birthDate)
-                            .gender(Gender.valueOf(patientWrapper.gender()))
-                            .familyName(patientWrapper.familyName())
-                            .givenName(patientWrapper.givenName())
-                            .build();
-            patientRepository.save(patient);
-            return UniversalResponse.builder()
-                    .status(HttpStatus.OK.value())
-                    .message("Patient created successfully")
-                    .data(patient)
-                    .build();
+            upsert =
+                    patientRepository.upsert(
+                            Patient.builder()
+                                    .identifier(patientWrapper.identifier())
+                                    .birthDate(DateParser.parseDate(patientWrapper.birthDate()))
+                                    .gender(Gender.valueOf(patientWrapper.gender()))
+                                    .familyName(patientWrapper.familyName())
+                                    .givenName(patientWrapper.givenName())
+                                    .build());
+        } catch (DataAccessException e) {
+            // connection and lock timeouts must reach the load-shedding aspect as they are
+            throw e;
         } catch (Exception e) {
             throw new PatientException(e.getMessage());
         }
+        if (upsert.status() != BulkRowStatus.REJECTED) {
+            // the MERGE bypasses Hibernate, which therefore cannot invalidate its own caches
+            patientCache.evict(upsert.patient().id(), upsert.patient().identifier());
+        }
+        return switch (upsert.status()) {
+            case CREATED ->
+                    UniversalResponse.builder()
+                            .status(HttpStatus.OK.value())
+                            .message("Patient created successfully")
+                            .data(upsert.patient())
+                            .build();
+            case RESTORED ->
+                    UniversalResponse.builder()
+                            .status(HttpStatus.OK.value())
+                            .message("Patient restored and updated successfully")
+                            .data(upsert.patient())
+                            .build();
+            case REJECTED -> throw new PatientException("Patient already exists");
+        };
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UniversalResponse retrievePatient(Long patientId) {
-        Patient patient =
-                patientRepository
-                        .findByIdAndSoftDeleteFalse(patientId)
-                        .orElseThrow(() -> new PatientException("Patient not found"));
+        PatientView patient = patientCache.getById(patientId);
         return UniversalResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Patient retrieved successfully")
@@ -99,14 +109,23 @@ public class PatientServiceImpl implements PatientService {
     }
 
     @Override
+    public Optional<ResourceVersion> retrievePatientVersion(Long patientId) {
+        return patientCache
+                .findById(patientId)
+                .map(patient -> ResourceVersion.of(List.of(patient.rowVersion())));
+    }
+
+    @Override
+    @Transactional
     public UniversalResponse updatePatient(Long patientId, PatientWrapper patientWrapper) {
         Patient patient =
                 patientRepository
                         .findByIdAndSoftDeleteFalse(patientId)
                         .orElseThrow(() -> new PatientException("Patient not found"));
-        if (!(patient.getIdentifier().equals(patientWrapper.identifier()))) {
-            patientRepository
-                    .findByIdentifierAndSoftDeleteFalse(patientWrapper.identifier())
+        Long previousIdentifier = patient.getIdentifier();
+        if (!(previousIdentifier.equals(patientWrapper.identifier()))) {
+            patientCache
+                    .findByIdentifier(patientWrapper.identifier())
                     .ifPresent(
                             existingPatient -> {
                                 throw new PatientException(
@@ -114,20 +133,21 @@ public class PatientServiceImpl implements PatientService {
                             });
             patient.setIdentifier(patientWrapper.identifier());
         }
-        Date birthDate = formatDate(patientWrapper.birthDate());
+        LocalDate birthDate = DateParser.parseDate(patientWrapper.birthDate());
         patient.setFamilyName(patientWrapper.familyName());
         patient.setGivenName(patientWrapper.givenName());
         patient.setGender(Gender.valueOf(patientWrapper.gender()));
         patient.setBirthDate(birthDate);
-        patientRepository.save(patient);
+        patientCache.evict(patientId, previousIdentifier, patient.getIdentifier());
         return UniversalResponse.builder()
-                .data(patient)
+                .data(PatientView.from(patient))
                 .message("Patient updated successfully")
                 .status(HttpStatus.OK.value())
                 .build();
     }
 
     @Override
+    @Transactional
     public UniversalResponse deletePatient(Long patientId) {
         Patient patient =
                 patientRepository
@@ -138,7 +158,7 @@ public class PatientServiceImpl implements PatientService {
             throw new PatientException("Patient has encounters, kindly clear the encounters");
         }
         patient.setSoftDelete(true);
-        patientRepository.save(patient);
+        patientCache.evict(patientId, patient.getIdentifier());
         return UniversalResponse.builder()
                 .message("Patient deleted successfully")
                 .status(HttpStatus.OK.value())
@@ -146,38 +166,30 @@ public class PatientServiceImpl implements PatientService {
     }
 
     @Override
+    @Transactional
     public UniversalResponse addPatientEncounters(
             Long patientId, EncounterWrapper encounterWrapper) {
-        Patient patient =
-                patientRepository
-                        .findByIdAndSoftDeleteFalse(patientId)
-                        .orElseThrow(() -> new PatientException("Patient not found"));
-        List<Encounter> patientEncounters = patient.getEncounters();
-        if (patientEncounters == null) {
-            patientEncounters = new ArrayList<>();
-            patient.setEncounters(patientEncounters);
-        }
-        Date encounterDate = formatDate(encounterWrapper.encounterDate());
-        LocalDateTime startTime = formatDateTime(encounterWrapper.start());
+        patientCache.getById(patientId);
+        LocalDate encounterDate = DateParser.parseDate(encounterWrapper.encounterDate());
+        LocalDateTime startTime = DateParser.parseDateTime(encounterWrapper.start());
         Encounter encounter =
                 Encounter.builder()
                         .encounterDate(encounterDate)
                         .start(startTime)
-                        .patient(patient)
+                        .patient(patientRepository.getReferenceById(patientId))
                         .build();
         encounterRepository.save(encounter);
-        patientEncounters.add(encounter);
-        patientRepository.save(patient);
         return UniversalResponse.builder()
                 .message("Encounter added successfully")
                 .status(HttpStatus.OK.value())
-                .data(encounter)
+                .data(EncounterView.from(encounter))
                 .build();
     }
 
     @Override
+    @Transactional
     public UniversalResponse endPatientEncounter(Long encounterId, String endEncounter) {
-        LocalDateTime encounterDateTime = formatDateTime(endEncounter);
+        LocalDateTime encounterDateTime = DateParser.parseDateTime(endEncounter);
         Encounter encounter =
                 encounterRepository
                         .findByIdAndSoftDeleteFalse(encounterId)
@@ -186,31 +198,28 @@ public class PatientServiceImpl implements PatientService {
                                         new PatientException(
                                                 "Encounter with the given id does not exist"));
         encounter.setEnd(encounterDateTime);
-        encounterRepository.save(encounter);
         return UniversalResponse.builder()
                 .message("Encounter ended successfully")
                 .status(HttpStatus.OK.value())
-                .data(encounter)
+                .data(EncounterView.from(encounter))
                 .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UniversalResponse retrievePatientEncountersAndObservation(
             String family, String givenName, Long identifier, String date, int page, int size) {
         try {
-            log.info("incoming request  date{}", date);
-            Date birthDate = formatDate(date);
-            Patient patient =
-                    patientRepository
-                            .findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(
-                                    family, givenName, identifier, birthDate)
-                            .orElseThrow(() -> new PatientException("Patient not found"));
+            Patient patient = searchPatient(family, givenName, identifier, date);
             Pageable pageable = PageRequest.of(page, size);
-            Page<Encounter> patientEncounters =
-                    encounterRepository.findByPatientIdAndSoftDeleteFalse(
-                            patient.getId(), pageable);
+            Page<Long> patientEncounters =
+                    encounterRepository.findIdPageByPatientId(patient.getId(), pageable);
             Map<String, Object> responseData = new HashMap<>();
-            responseData.put("encounters", patientEncounters.getContent());
+            responseData.put(
+                    "encounters",
+                    loadEncountersInOrder(patientEncounters.getContent()).stream()
+                            .map(EncounterView::withObservations)
+                            .toList());
             responseData.put("currentPage", patientEncounters.getNumber());
             responseData.put("totalPages", patientEncounters.getTotalPages());
             responseData.put("totalEncounters", patientEncounters.getTotalElements());
@@ -226,96 +235,254 @@ public class PatientServiceImpl implements PatientService {
         }
     }
 
-    public UniversalResponse viewPatientEncounters(Long patientId) {
-        Patient patient =
-                patientRepository
-                        .findByIdAndSoftDeleteFalse(patientId)
-                        .orElseThrow(() -> new PatientException("Patient not found"));
-        List<Encounter> encounters = patient.getEncounters();
-        if (encounters == null) {
-            encounters = new ArrayList<>();
+    @Override
+    @Transactional(readOnly = true)
+    public UniversalResponse scrollPatientEncountersAndObservation(
+            String family, String givenName, Long identifier, String date, String cursor, int size) {
+        try {
+            Patient patient = searchPatient(family, givenName, identifier, date);
+            PageCursor after = PageCursor.decode(cursor);
+            Limit limit = Limit.of(keysetLimit(size));
+            List<Long> encounterIds =
+                    after == null
+                            ? encounterRepository.findFirstIdsByPatientId(patient.getId(), limit)
+                            : encounterRepository.findIdsByPatientIdAfter(
+                                    patient.getId(), after.timestamp(), after.id(), limit);
+            boolean hasNext = encounterIds.size() > size;
+            String nextCursor = null;
+            List<Encounter> encounters =
+                    loadEncountersInOrder(hasNext ? encounterIds.subList(0, size) : encounterIds);
+            Map<String, Object> responseData = new HashMap<>();
+            responseData.put(
+                    "encounters",
+                    encounters.stream().map(EncounterView::withObservations).toList());
+            responseData.put("hasNext", hasNext);
+            if (hasNext) {
+                Encounter last = encounters.get(encounters.size() - 1);
+                nextCursor = new PageCursor(last.getStart(), last.getId()).encode();
+            }
+            responseData.put("nextCursor", nextCursor);
+            return UniversalResponse.builder()
+                    .data(responseData)
+                    .status(HttpStatus.OK.value())
+                    .message("Patient encounters and Observations")
+                    .build();
+        } catch (Exception ex) {
+            throw new PatientException(ex.getMessage());
         }
+    }
+
+    private Patient searchPatient(String family, String givenName, Long identifier, String date) {
+        log.info("incoming request  date{}", date);
+        LocalDate birthDate = DateParser.parseDate(date);
+        return patientRepository
+                .findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(
+                        family, givenName, identifier, birthDate)
+                .orElseThrow(() -> new PatientException("Patient not found"));
+    }
+
+    private List<Encounter> loadEncountersInOrder(List<Long> encounterIds) {
+        if (encounterIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Encounter> encountersById = new HashMap<>();
+        encounterRepository
+                .findAllWithObservationsByIdIn(encounterIds)
+                .forEach(encounter -> encountersById.put(encounter.getId(), encounter));
+        return encounterIds.stream().map(encountersById::get).toList();
+    }
+
+    public UniversalResponse viewPatientEncounters(Long patientId) {
+        patientCache.getById(patientId);
+        List<Encounter> encounters = encounterRepository.findByPatientIdOrderById(patientId);
         return UniversalResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Patient encounters retrieved successfully")
-                .data(encounters)
+                .data(encounters.stream().map(EncounterView::from).toList())
                 .build();
     }
 
+    @Override
+    public Optional<ResourceVersion> viewPatientEncountersVersion(Long patientId) {
+        return patientCache
+                .findById(patientId)
+                .map(
+                        patient ->
+                                ResourceVersion.of(
+                                        encounterRepository.findVersionsByPatientIdOrderById(
+                                                patientId)));
+    }
+
     public UniversalResponse viewPatientObservations(Long patientId) {
-        Patient patient =
-                patientRepository
-                        .findByIdAndSoftDeleteFalse(patientId)
-                        .orElseThrow(() -> new PatientException("Patient not found"));
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+        patientCache.getById(patientId);
+        Pageable pageable =
+                PageRequest.of(0, RECENT_OBSERVATIONS, Sort.by(Sort.Direction.DESC, "id"));
         Page<Observation> observationsPage =
-                observationRepository.findObservationByPatientAndSoftDeleteFalse(patient, pageable);
-        List<Observation> observations = observationsPage.getContent();
+                observationRepository.findByPatientIdAndSoftDeleteFalse(patientId, pageable);
         return UniversalResponse.builder()
                 .status(HttpStatus.OK.value())
                 .message("Patient observations retrieved successfully")
-                .data(observations)
+                .data(observationsPage.getContent().stream().map(ObservationView::from).toList())
                 .build();
     }
 
     @Override
+    public Optional<ResourceVersion> viewPatientObservationsVersion(Long patientId) {
+        return patientCache
+                .findById(patientId)
+                .map(
+                        patient ->
+                                ResourceVersion.of(
+                                        observationRepository.findLatestVersionsByPatientId(
+                                                patientId, Limit.of(RECENT_OBSERVATIONS))));
+    }
+
+    @Override
+    public UniversalResponse scrollPatientObservations(Long patientId, String cursor, int size) {
+        Limit limit = Limit.of(keysetLimit(size));
+        patientCache.getById(patientId);
+        PageCursor after = PageCursor.decode(cursor);
+        List<Observation> observations =
+                after == null
+                        ? observationRepository.findFirstByPatientId(patientId, limit)
+                        : observationRepository.findByPatientIdAfter(
+                                patientId, after.timestamp(), after.id(), limit);
+        boolean hasNext = observations.size() > size;
+        String nextCursor = null;
+        if (hasNext) {
+            observations = observations.subList(0, size);
+            Observation last = observations.get(size - 1);
+            nextCursor = new PageCursor(last.getEffectiveDateTime(), last.getId()).encode();
+        }
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("observations", observations.stream().map(ObservationView::from).toList());
+        responseData.put("hasNext", hasNext);
+        responseData.put("nextCursor", nextCursor);
+        return UniversalResponse.builder()
+                .status(HttpStatus.OK.value())
+                .message("Patient observations retrieved successfully")
+                .data(responseData)
+                .build();
+    }
+
+    @Override
+    public UniversalResponse retrievePatientCacheStats() {
+        return UniversalResponse.builder()
+                .status(HttpStatus.OK.value())
+                .message("Patient cache statistics")
+                .data(patientCache.stats())
+                .build();
+    }
+
+    /** One row more than the page size is read so hasNext needs no COUNT query. */
+    private static int keysetLimit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new PatientException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size + 1;
+    }
+
+    @Override
+    @Transactional
     public UniversalResponse addEncounterObservation(
             Long encounterId, ObservationWrapper observationWrapper) {
-        Encounter encounter =
+        // Insert through references only: loading encounter.observations to append to it would
+        // read the encounter's whole history for every new reading. The encounter lookup itself is
+        // usually answered by the second-level cache.
+        Long patientId =
                 encounterRepository
-                        .findByIdAndSoftDeleteFalse(encounterId)
+                        .findPatientIdByIdAndSoftDeleteFalse(encounterId)
                         .orElseThrow(
                                 () ->
                                         new PatientException(
                                                 "Encounter with the given id does not exist"));
-        List<Observation> patientObservations = encounter.getObservations();
-        if (patientObservations == null) {
-            patientObservations = new ArrayList<>();
-            encounter.setObservations(patientObservations);
-        }
-        LocalDateTime effectiveDateTime = formatDateTime(observationWrapper.effectiveDateTime());
+        LocalDateTime effectiveDateTime =
+                DateParser.parseDateTime(observationWrapper.effectiveDateTime());
         Observation observation =
-                Observation.builder()
-                        .code(observationWrapper.code())
-                        .value(observationWrapper.value())
-                        .effectiveDateTime(effectiveDateTime)
-                        .patient(encounter.getPatient())
-                        .encounter(encounter)
-                        .build();
-        observationRepository.save(observation);
-        patientObservations.add(observation);
-        encounterRepository.save(encounter);
+                observationRepository.save(
+                        Observation.builder()
+                                .code(observationWrapper.code())
+                                .value(observationWrapper.value())
+                                .effectiveDateTime(effectiveDateTime)
+                                .patient(patientRepository.getReferenceById(patientId))
+                                .encounter(encounterRepository.getReferenceById(encounterId))
+                                .build());
         return UniversalResponse.builder()
                 .message("Encounter added successfully")
                 .status(HttpStatus.OK.value())
-                .data(encounter)
+                .data(ObservationView.from(observation))
                 .build();
     }
 
-    private Date formatDate(String date) {
-        if (date == null || date.isBlank()) {
-            throw new PatientException("Date cannot be null or empty");
-        }
-        try {
-            date = date.trim();
-            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-            formatter.setLenient(false);
-            return formatter.parse(date);
-        } catch (ParseException e) {
-            throw new PatientException(
-                    "Invalid date format. Expected: yyyy-MM-dd (e.g., 1996-08-09), but got: "
-                            + date);
-        } catch (Exception e) {
-            throw new PatientException("Error parsing date: " + e.getMessage());
+    @Override
+    @Transactional
+    public UniversalResponse addEncounterObservations(
+            Long encounterId, List<ObservationWrapper> observationWrappers) {
+        List<LocalDateTime> effectiveDateTimes = validateObservations(observationWrappers);
+        Long patientId =
+                encounterRepository
+                        .findPatientIdByIdAndSoftDeleteFalse(encounterId)
+                        .orElseThrow(
+                                () ->
+                                        new PatientException(
+                                                "Encounter with the given id does not exist"));
+        Patient patient = patientRepository.getReferenceById(patientId);
+        Encounter encounter = encounterRepository.getReferenceById(encounterId);
+        List<Observation> observations = new ArrayList<>(observationWrappers.size());
+        for (int i = 0; i < observationWrappers.size(); i++) {
+            ObservationWrapper observationWrapper = observationWrappers.get(i);
+            observations.add(
+                    Observation.builder()
+                            .code(observationWrapper.code())
+                            .value(observationWrapper.value())
+                            .effectiveDateTime(effectiveDateTimes.get(i))
+                            .patient(patient)
+                            .encounter(encounter)
+                            .build());
         }
+        List<Long> observationIds =
+                observationRepository.saveAll(observations).stream()
+                        .map(Observation::getId)
+                        .toList();
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("encounterId", encounterId);
+        responseData.put("observationIds", observationIds);
+        return UniversalResponse.builder()
+                .message("Observations added successfully")
+                .status(HttpStatus.OK.value())
+                .data(responseData)
+                .build();
     }
 
-    private LocalDateTime formatDateTime(String dateTime) {
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            return LocalDateTime.parse(dateTime, formatter);
-        } catch (Exception exception) {
-            throw new PatientException(exception.getMessage());
+    /**
+     * Checks every observation before anything is written and reports all problems at once, so a
+     * panel is either stored completely or not at all. Returns the parsed effective date times.
+     */
+    private List<LocalDateTime> validateObservations(List<ObservationWrapper> observationWrappers) {
+        if (observationWrappers == null || observationWrappers.isEmpty()) {
+            throw new PatientException("At least one observation is required");
+        }
+        if (observationWrappers.size() > MAX_OBSERVATIONS_PER_BATCH) {
+            throw new PatientException(
+                    "At most " + MAX_OBSERVATIONS_PER_BATCH + " observations can be added at once");
+        }
+        List<String> problems = new ArrayList<>();
+        List<LocalDateTime> effectiveDateTimes = new ArrayList<>(observationWrappers.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < observationWrappers.size(); i++) {
+            ObservationWrapper observationWrapper = observationWrappers.get(i);
+            String problem = observationRules.problem(observationWrapper, now);
+            if (problem == null) {
+                effectiveDateTimes.add(
+                        DateParser.parseDateTime(observationWrapper.effectiveDateTime()));
+            } else {
+                problems.add("observation[" + i + "]: " + problem);
+                effectiveDateTimes.add(null);
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new PatientException(String.join("; ", problems));
         }
+        return effectiveDateTimes;
     }
 }
@@ -0,0 +1,135 @@
+package com.intellisoft.digitalhealthbackend.utils;
+
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Thread-safe parsing of the request date formats {@code yyyy-MM-dd} and {@code yyyy-MM-dd
+ * HH:mm:ss}. Fields are read straight from the characters and range-checked (including days per
+ * month) before the immutable java.time value is built, so there is no formatter to create or
+ * share and malformed input is rejected without constructing an exception.
+ */
+public final class DateParser {
+    private static final int DATE_LENGTH = 10;
+    private static final int DATE_TIME_LENGTH = 19;
+
+    private DateParser() {}
+
+    /** Parses {@code yyyy-MM-dd}, surrounding whitespace allowed. */
+    public static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            throw new PatientException("Date cannot be null or empty");
+        }
+        LocalDate date = tryParseDate(value);
+        if (date == null) {
+            throw new PatientException(
+                    "Invalid date format. Expected: yyyy-MM-dd (e.g., 1996-08-09), but got: "
+                            + value.trim());
+        }
+        return date;
+    }
+
+    /** Parses {@code yyyy-MM-dd HH:mm:ss}, surrounding whitespace allowed. */
+    public static LocalDateTime parseDateTime(String value) {
+        if (value == null || value.isBlank()) {
+            throw new PatientException("Date time cannot be null or empty");
+        }
+        LocalDateTime dateTime = tryParseDateTime(value);
+        if (dateTime == null) {
+            throw new PatientException(
+                    "Invalid date time format. Expected: yyyy-MM-dd HH:mm:ss (e.g., 2025-11-01"
+                            + " 10:30:00), but got: "
+                            + value.trim());
+        }
+        return dateTime;
+    }
+
+    /** Returns {@code null} instead of throwing when the value is not a valid date. */
+    public static LocalDate tryParseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        int start = firstNonSpace(value);
+        int end = lastNonSpace(value) + 1;
+        if (end - start != DATE_LENGTH) {
+            return null;
+        }
+        return date(value, start);
+    }
+
+    /** Returns {@code null} instead of throwing when the value is not a valid date time. */
+    public static LocalDateTime tryParseDateTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        int start = firstNonSpace(value);
+        int end = lastNonSpace(value) + 1;
+        if (end - start != DATE_TIME_LENGTH || value.charAt(start + DATE_LENGTH) != ' ') {
+            return null;
+        }
+        LocalDate date = date(value, start);
+        if (date == null) {
+            return null;
+        }
+        int time = start + DATE_LENGTH + 1;
+        if (value.charAt(time + 2) != ':' || value.charAt(time + 5) != ':') {
+            return null;
+        }
+        int hour = digits(value, time, 2);
+        int minute = digits(value, time + 3, 2);
+        int second = digits(value, time + 6, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return LocalDateTime.of(date, LocalTime.of(hour, minute, second));
+    }
+
+    private static LocalDate date(String value, int start) {
+        if (value.charAt(start + 4) != '-' || value.charAt(start + 7) != '-') {
+            return null;
+        }
+        int year = digits(value, start, 4);
+        int month = digits(value, start + 5, 2);
+        int day = digits(value, start + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        if (day > 28 && day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /** Value of {@code length} ASCII digits starting at {@code offset}, or -1. */
+    private static int digits(String value, int offset, int length) {
+        int result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int firstNonSpace(String value) {
+        int index = 0;
+        while (index < value.length() && Character.isWhitespace(value.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int lastNonSpace(String value) {
+        int index = value.length() - 1;
+        while (index >= 0 && Character.isWhitespace(value.charAt(index))) {
+            index--;
+        }
+        return index;
+    }
+}
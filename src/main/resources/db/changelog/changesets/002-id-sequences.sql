@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset digital-health-team:004-create-id-sequences
+-- Pooled sequences replace AUTO_INCREMENT so Hibernate can batch inserts. Each sequence restarts one
+-- allocation block above the highest existing id, so existing rows keep their ids, and the column
+-- default moves to the sequence for inserts that bypass Hibernate.
+CREATE SEQUENCE IF NOT EXISTS seq_patient START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE seq_patient RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM "tb_patient");
+ALTER TABLE "tb_patient" ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE "tb_patient" ALTER COLUMN id SET DEFAULT NEXT VALUE FOR seq_patient;
+
+CREATE SEQUENCE IF NOT EXISTS seq_encounter START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE seq_encounter RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM "tb_encounter");
+ALTER TABLE "tb_encounter" ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE "tb_encounter" ALTER COLUMN id SET DEFAULT NEXT VALUE FOR seq_encounter;
+
+CREATE SEQUENCE IF NOT EXISTS seq_observation START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE seq_observation RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM tb_observation);
+ALTER TABLE tb_observation ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE tb_observation ALTER COLUMN id SET DEFAULT NEXT VALUE FOR seq_observation;
+
+--changeset digital-health-team:005-id-allocation-size runOnChange:true
+-- Hibernate reads the increment back at startup (increment_size_mismatch_strategy: FIX), so
+-- changing spring.liquibase.parameters.idAllocationSize is all it takes to resize the blocks.
+ALTER SEQUENCE seq_patient INCREMENT BY ${idAllocationSize};
+ALTER SEQUENCE seq_encounter INCREMENT BY ${idAllocationSize};
+ALTER SEQUENCE seq_observation INCREMENT BY ${idAllocationSize};
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset digital-health-team:006-create-keyset-indexes
+-- Composite indexes matching the keyset (cursor) pagination predicates: the patient and soft-delete
+-- equality columns first, then the sort key and id tie-breaker, so a page is a single index range.
+CREATE INDEX IF NOT EXISTS idx_encounters_patient_start ON "tb_encounter"(patient_id, "soft-delete", "encounter-start", id);
+CREATE INDEX IF NOT EXISTS idx_observation_patient_effective ON tb_observation(patient_id, "soft_delete", effective_date_time, id);
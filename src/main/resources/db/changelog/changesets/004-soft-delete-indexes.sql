@@ -0,0 +1,18 @@
+--liquibase formatted sql
+
+--changeset digital-health-team:007-drop-redundant-indexes
+-- Every lookup filters on a parent id and the soft-delete flag, then sorts by time, which the
+-- (parent, flag, time, id) indexes from 006 serve. The standalone soft-delete indexes (two values,
+-- never selective) and the single-column indexes duplicating a constraint index or a composite
+-- prefix only cost writes.
+DROP INDEX IF EXISTS idx_patients_soft_delete;
+DROP INDEX IF EXISTS idx_encounters_soft_delete;
+DROP INDEX IF EXISTS idx_observation_soft_delete;
+-- prefixes of idx_encounters_patient_start and idx_observation_patient_effective
+DROP INDEX IF EXISTS idx_encounters_patient_id;
+DROP INDEX IF EXISTS idx_observation_patient_id;
+-- duplicates of the indexes H2 created for fk_observation_encounter and the unique identifier
+DROP INDEX IF EXISTS idx_observation_encounter_id;
+DROP INDEX IF EXISTS idx_patients_identifier;
+-- prefix of idx_patients_search
+DROP INDEX IF EXISTS idx_patients_family_name;
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset digital-health-team:008-add-row-versions
+-- Optimistic-lock version and modification time of every row: the ETag and Last-Modified of the
+-- patient, encounter and observation reads. Writes that bypass Hibernate must bump both. The time
+-- carries its zone so Hibernate's instants and SQL's CURRENT_TIMESTAMP mean the same moment.
+ALTER TABLE "tb_patient" ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE "tb_patient" ADD COLUMN IF NOT EXISTS last_modified_on TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE "tb_encounter" ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE "tb_encounter" ADD COLUMN IF NOT EXISTS last_modified_on TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE tb_observation ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE tb_observation ADD COLUMN IF NOT EXISTS last_modified_on TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset digital-health-team:009-restart-id-sequences
+-- 004 restarted each sequence a fixed 50 above the highest id. Hibernate's pooled optimizer treats
+-- the first value it reads as the end of a block of idAllocationSize ids, so with a larger size
+-- that block reached back into existing rows. Restarting one full block above the highest id
+-- keeps the first block clear of them.
+ALTER SEQUENCE seq_patient RESTART WITH (SELECT COALESCE(MAX(id), 0) + ${idAllocationSize} FROM "tb_patient");
+ALTER SEQUENCE seq_encounter RESTART WITH (SELECT COALESCE(MAX(id), 0) + ${idAllocationSize} FROM "tb_encounter");
+ALTER SEQUENCE seq_observation RESTART WITH (SELECT COALESCE(MAX(id), 0) + ${idAllocationSize} FROM tb_observation);
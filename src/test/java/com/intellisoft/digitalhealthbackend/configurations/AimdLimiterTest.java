@@ -0,0 +1,63 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AimdLimiterTest {
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Calls beyond the limit are rejected and counted")
+    void tryAcquire_WhenLimitReached_ShouldReject() {
+        AimdLimiter limiter = limiter(2, 1, 4);
+        assertEquals(1, limiter.tryAcquire());
+        assertEquals(2, limiter.tryAcquire());
+        assertEquals(-1, limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get("patient.concurrency.rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("patient.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Slow or dropped calls cut the limit, but not below the minimum")
+    void release_WhenSlowOrDropped_ShouldDecreaseLimit() {
+        AimdLimiter limiter = limiter(10, 8, 20);
+        limiter.release(THRESHOLD + 1, limiter.tryAcquire(), false);
+        assertEquals(9, limiter.getLimit());
+        limiter.release(FAST, limiter.tryAcquire(), true);
+        assertEquals(8, limiter.getLimit());
+        limiter.release(THRESHOLD + 1, limiter.tryAcquire(), false);
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Fast calls raise the limit only while it is being used, up to the maximum")
+    void release_WhenFastNearLimit_ShouldIncreaseLimit() {
+        AimdLimiter limiter = limiter(4, 1, 5);
+        limiter.release(FAST, limiter.tryAcquire(), false);
+        assertEquals(4, limiter.getLimit());
+
+        int first = limiter.tryAcquire();
+        int second = limiter.tryAcquire();
+        limiter.release(FAST, second, false);
+        assertEquals(5, limiter.getLimit());
+        limiter.release(FAST, first, false);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(FAST, 3, false);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    private AimdLimiter limiter(int initial, int min, int max) {
+        return new AimdLimiter("read", initial, min, max, THRESHOLD, 0.9, meterRegistry);
+    }
+}
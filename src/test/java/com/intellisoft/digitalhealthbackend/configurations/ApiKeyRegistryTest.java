@@ -0,0 +1,115 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+
+class ApiKeyRegistryTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Keys resolve to their client by hash; unknown and missing keys do not")
+    void find_ShouldResolveClientByKeyHash() {
+        ApiKeyRegistry registry =
+                registry(client("lab", "lab-key", 10, 5), client("ward", "ward-key", 10, 5));
+        assertEquals("lab", registry.find("lab-key").getId());
+        assertEquals("ward", registry.find("ward-key").getId());
+        assertNull(registry.find("other-key"));
+        assertNull(registry.find(null));
+    }
+
+    @Test
+    @DisplayName("Extra clients from the environment are added to the profile's client list")
+    void constructor_WithExtraClientsFromEnvironment_ShouldRegisterBoth() {
+        MutablePropertySources sources = new MutablePropertySources();
+        sources.addLast(
+                new SystemEnvironmentPropertySource(
+                        StandardEnvironment.SYSTEM_ENVIRONMENT_PROPERTY_SOURCE_NAME,
+                        Map.of(
+                                "API_KEY_EXTRACLIENTS_0_ID",
+                                "ward",
+                                "API_KEY_EXTRACLIENTS_0_KEYSHA256",
+                                ApiKeyRegistry.sha256Hex("ward-key"),
+                                "API_KEY_EXTRACLIENTS_0_REQUESTSPERSECOND",
+                                "10",
+                                "API_KEY_EXTRACLIENTS_0_BURST",
+                                "5")));
+        sources.addLast(
+                new MapPropertySource(
+                        "application-prod.yml",
+                        Map.of(
+                                "api.key.clients[0].id",
+                                "lab",
+                                "api.key.clients[0].key-sha256",
+                                ApiKeyRegistry.sha256Hex("lab-key"),
+                                "api.key.clients[0].requests-per-second",
+                                "10",
+                                "api.key.clients[0].burst",
+                                "5")));
+        ApiKeyProperties properties =
+                new Binder(ConfigurationPropertySources.from(sources))
+                        .bind("api.key", ApiKeyProperties.class)
+                        .get();
+
+        ApiKeyRegistry registry = new ApiKeyRegistry(properties, meterRegistry);
+
+        assertEquals("lab", registry.find("lab-key").getId());
+        assertEquals("ward", registry.find("ward-key").getId());
+    }
+
+    @Test
+    @DisplayName("Allowed and throttled requests are counted per client")
+    void tryAcquire_ShouldCountOutcomesPerClient() {
+        ApiClient client = registry(client("lab", "lab-key", 0.001, 1)).find("lab-key");
+        assertEquals(0, client.tryAcquire());
+        assertTrue(client.tryAcquire() > 0);
+        assertEquals(1.0, count("lab", "allowed"));
+        assertEquals(1.0, count("lab", "throttled"));
+    }
+
+    @Test
+    @DisplayName("Malformed hashes, duplicate ids and shared keys fail at startup")
+    void constructor_WithInvalidClients_ShouldFail() {
+        assertThrows(
+                IllegalStateException.class,
+                () -> registry(new ApiKeyProperties.Client("lab", "not-a-hash", 10, 5)));
+        assertThrows(
+                IllegalStateException.class,
+                () -> registry(client("lab", "a", 10, 5), client("lab", "b", 10, 5)));
+        assertThrows(
+                IllegalStateException.class,
+                () -> registry(client("lab", "same", 10, 5), client("ward", "same", 10, 5)));
+    }
+
+    private ApiKeyRegistry registry(ApiKeyProperties.Client... clients) {
+        return new ApiKeyRegistry(new ApiKeyProperties(List.of(clients), null), meterRegistry);
+    }
+
+    private static ApiKeyProperties.Client client(
+            String id, String key, double requestsPerSecond, int burst) {
+        return new ApiKeyProperties.Client(
+                id, ApiKeyRegistry.sha256Hex(key).toUpperCase(), requestsPerSecond, burst);
+    }
+
+    private double count(String client, String outcome) {
+        return meterRegistry
+                .get("api.client.requests")
+                .tag("client", client)
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
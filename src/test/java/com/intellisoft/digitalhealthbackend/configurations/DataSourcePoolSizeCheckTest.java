@@ -0,0 +1,77 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+
+class DataSourcePoolSizeCheckTest {
+
+    private HikariDataSource dataSource;
+    private ServerProperties serverProperties;
+
+    @BeforeEach
+    void setUp() {
+        // never started: only the configured pool size is read
+        dataSource = new HikariDataSource();
+        serverProperties = new ServerProperties();
+        serverProperties.getTomcat().getThreads().setMax(32);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Startup fails when the pool is smaller than the Tomcat thread count requires")
+    void afterPropertiesSet_WhenPoolUndersized_ShouldFail() {
+        dataSource.setMaximumPoolSize(10);
+        DataSourcePoolSizeCheck check =
+                new DataSourcePoolSizeCheck(dataSource, serverProperties, 1.0, false, 0);
+        IllegalStateException exception =
+                assertThrows(IllegalStateException.class, check::afterPropertiesSet);
+        assertTrue(exception.getMessage().contains("at least 32 connections"));
+    }
+
+    @Test
+    @DisplayName("Startup succeeds when the pool covers the required share of Tomcat threads")
+    void afterPropertiesSet_WhenPoolLargeEnough_ShouldPass() {
+        dataSource.setMaximumPoolSize(16);
+        DataSourcePoolSizeCheck check =
+                new DataSourcePoolSizeCheck(dataSource, serverProperties, 0.5, false, 0);
+        assertDoesNotThrow(check::afterPropertiesSet);
+    }
+
+    @Test
+    @DisplayName("On virtual threads startup fails without a request concurrency limit")
+    void afterPropertiesSet_WhenVirtualThreadsUnlimited_ShouldFail() {
+        dataSource.setMaximumPoolSize(32);
+        DataSourcePoolSizeCheck check =
+                new DataSourcePoolSizeCheck(dataSource, serverProperties, 1.0, true, 0);
+        IllegalStateException exception =
+                assertThrows(IllegalStateException.class, check::afterPropertiesSet);
+        assertTrue(exception.getMessage().contains("patient.concurrency.max-requests"));
+    }
+
+    @Test
+    @DisplayName("On virtual threads the pool is sized against the request concurrency limit")
+    void afterPropertiesSet_WhenVirtualThreads_ShouldCheckConcurrencyLimit() {
+        dataSource.setMaximumPoolSize(16);
+        assertDoesNotThrow(
+                new DataSourcePoolSizeCheck(dataSource, serverProperties, 1.0, true, 16)
+                        ::afterPropertiesSet);
+        IllegalStateException exception =
+                assertThrows(
+                        IllegalStateException.class,
+                        new DataSourcePoolSizeCheck(dataSource, serverProperties, 1.0, true, 24)
+                                ::afterPropertiesSet);
+        assertTrue(exception.getMessage().contains("patient.concurrency.max-requests=24"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestConcurrencyLimitFilterTest {
+
+    private final RequestConcurrencyLimitFilter filter =
+            new RequestConcurrencyLimitFilter(1, Duration.ofMillis(10));
+
+    @Test
+    @DisplayName("A request beyond the limit gets 503 with Retry-After once the wait times out")
+    void doFilter_WhenLimitReached_ShouldRejectWith503() throws Exception {
+        AtomicReference<MockHttpServletResponse> rejected = new AtomicReference<>();
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(
+                request("/api/patients/1"),
+                admitted,
+                (request, response) -> {
+                    MockHttpServletResponse second = new MockHttpServletResponse();
+                    filter.doFilter(request("/api/patients/2"), second, (req, res) -> {});
+                    rejected.set(second);
+                });
+
+        assertEquals(200, admitted.getStatus());
+        assertEquals(503, rejected.get().getStatus());
+        assertEquals("1", rejected.get().getHeader("Retry-After"));
+        assertTrue(rejected.get().getContentAsString().contains("\"status\":503"));
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    @DisplayName("The permit is released when the handler throws")
+    void doFilter_WhenHandlerFails_ShouldReleasePermit() {
+        try {
+            filter.doFilter(
+                    request("/api/patients/1"),
+                    new MockHttpServletResponse(),
+                    (request, response) -> {
+                        throw new IllegalStateException("boom");
+                    });
+        } catch (Exception expected) {
+            // the failure itself is not under test
+        }
+        assertEquals(1, filter.availablePermits());
+    }
+
+    @Test
+    @DisplayName("Actuator endpoints bypass the limit")
+    void doFilter_WhenActuator_ShouldNotTakePermit() throws Exception {
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(
+                request("/api/patients/1"),
+                new MockHttpServletResponse(),
+                (request, response) ->
+                        filter.doFilter(request("/actuator/health"), health, (req, res) -> {}));
+        assertEquals(200, health.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,152 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.exceptions.ServiceOverloadedException;
+import com.intellisoft.digitalhealthbackend.service.PatientService;
+import com.intellisoft.digitalhealthbackend.service.impl.PatientServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+class ServiceLoadSheddingAspectTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AimdLimiter readLimiter = limiter("read", 1);
+    private final AimdLimiter writeLimiter = limiter("write", 1);
+    private final PatientService target = mock(PatientService.class);
+    private PatientService service;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ServiceLoadSheddingAspect(readLimiter, writeLimiter));
+        service = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("A read over the read limit is shed while writes have their own limit")
+    void limit_WhenReadLimitReached_ShouldShedReadsOnly() {
+        UniversalResponse ok = UniversalResponse.builder().status(200).build();
+        when(target.createPatient(any())).thenReturn(ok);
+        when(target.retrievePatient(1L))
+                .thenAnswer(
+                        invocation -> {
+                            assertThrows(
+                                    ServiceOverloadedException.class,
+                                    () -> service.viewPatientEncounters(1L));
+                            return service.createPatient(PatientWrapper.builder().build());
+                        });
+
+        assertEquals(ok, service.retrievePatient(1L));
+        assertEquals(0, readLimiter.getInFlight());
+        assertEquals(0, writeLimiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Database failures cut the limit; business errors do not")
+    void limit_WhenDatabaseFails_ShouldBackOff() {
+        AimdLimiter limiter = limiter("write", 10);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ServiceLoadSheddingAspect(readLimiter, limiter));
+        PatientService limited = factory.getProxy();
+        when(target.deletePatient(1L)).thenThrow(new IllegalStateException("not found"));
+        when(target.deletePatient(2L)).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(IllegalStateException.class, () -> limited.deletePatient(1L));
+        assertEquals(10, limiter.getLimit());
+        assertThrows(QueryTimeoutException.class, () -> limited.deletePatient(2L));
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("On the Spring proxy the limit sits outside the transaction and sees begin failures")
+    void limit_OnSpringProxy_ShouldWrapTransaction() {
+        AimdLimiter limiter = limiter("write", 10);
+        try (AnnotationConfigApplicationContext context =
+                new AnnotationConfigApplicationContext()) {
+            context.registerBean(
+                    ServiceLoadSheddingAspect.class,
+                    () -> new ServiceLoadSheddingAspect(readLimiter, limiter));
+            context.registerBean(RequestTimingAspect.class);
+            context.registerBean(PatientServiceImpl.class, () -> mock(PatientServiceImpl.class));
+            context.registerBean(
+                    PlatformTransactionManager.class, () -> failingTransactionManager());
+            context.register(ProxyConfiguration.class);
+            context.refresh();
+            PatientService proxied = context.getBean(PatientService.class);
+
+            assertThrows(CannotCreateTransactionException.class, () -> proxied.deletePatient(1L));
+            assertEquals(9, limiter.getLimit());
+            assertEquals(0, limiter.getInFlight());
+
+            List<String> advice =
+                    Arrays.stream(((Advised) proxied).getAdvisors())
+                            .map(advisor -> advisor.getAdvice().getClass().getSimpleName())
+                            .toList();
+            assertTrue(
+                    advice.indexOf("AspectJAroundAdvice")
+                            < advice.indexOf("TransactionInterceptor"),
+                    advice.toString());
+            assertEquals(
+                    2,
+                    advice.subList(0, advice.indexOf("TransactionInterceptor")).stream()
+                            .filter("AspectJAroundAdvice"::equals)
+                            .count(),
+                    "both aspects must run before the transaction: " + advice);
+        }
+    }
+
+    @Test
+    @DisplayName("Reads are told apart from writes by method name")
+    void isRead_ShouldClassifyServiceMethods() {
+        assertTrue(ServiceLoadSheddingAspect.isRead("retrievePatientEncountersAndObservation"));
+        assertTrue(ServiceLoadSheddingAspect.isRead("viewPatientObservations"));
+        assertTrue(ServiceLoadSheddingAspect.isRead("scrollPatientObservations"));
+        assertFalse(ServiceLoadSheddingAspect.isRead("addEncounterObservations"));
+        assertFalse(ServiceLoadSheddingAspect.isRead("updatePatient"));
+    }
+
+    private AimdLimiter limiter(String name, int limit) {
+        return new AimdLimiter(
+                name,
+                limit,
+                1,
+                limit,
+                TimeUnit.SECONDS.toNanos(10),
+                0.9,
+                meterRegistry);
+    }
+
+    private static PlatformTransactionManager failingTransactionManager() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("Connection is not available"));
+        return transactionManager;
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @EnableTransactionManagement
+    static class ProxyConfiguration {}
+}
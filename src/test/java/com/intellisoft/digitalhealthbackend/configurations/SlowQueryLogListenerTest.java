@@ -0,0 +1,75 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.time.Duration;
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+class SlowQueryLogListenerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("sql.slow");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    @DisplayName("Sampled statements above the threshold are logged without parameters")
+    void afterQuery_WhenSlowAndSampled_ShouldLogSql() {
+        SlowQueryLogListener listener =
+                new SlowQueryLogListener(Duration.ofMillis(100), 0.5, () -> 0.2);
+        listener.afterQuery(execution(150), queries("SELECT * FROM tb_patient WHERE id = ?"));
+        assertEquals(1, appender.list.size());
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.startsWith("150 ms"));
+        assertTrue(message.endsWith("SELECT * FROM tb_patient WHERE id = ?"));
+    }
+
+    @Test
+    @DisplayName("Statements below the threshold are never logged")
+    void afterQuery_WhenFast_ShouldNotLog() {
+        SlowQueryLogListener listener =
+                new SlowQueryLogListener(Duration.ofMillis(100), 1.0, () -> 0.0);
+        listener.afterQuery(execution(99), queries("SELECT 1"));
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Slow statements outside the sample are skipped")
+    void afterQuery_WhenNotSampled_ShouldNotLog() {
+        SlowQueryLogListener listener =
+                new SlowQueryLogListener(Duration.ofMillis(100), 0.1, () -> 0.7);
+        listener.afterQuery(execution(500), queries("SELECT 1"));
+        assertTrue(appender.list.isEmpty());
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+
+    private static List<QueryInfo> queries(String sql) {
+        return List.of(new QueryInfo(sql));
+    }
+}
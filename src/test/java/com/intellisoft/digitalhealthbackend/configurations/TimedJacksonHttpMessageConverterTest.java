@@ -0,0 +1,62 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+class TimedJacksonHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TimedJacksonHttpMessageConverter converter =
+            new TimedJacksonHttpMessageConverter(objectMapper, 1024);
+
+    @BeforeEach
+    void setUp() {
+        RequestTiming.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.clear();
+    }
+
+    @Test
+    @DisplayName("A body within the buffer gets its length and the serialization time")
+    void write_WhenBodyFitsBuffer_ShouldReportSerialization() throws Exception {
+        Map<String, String> body = Map.of("message", "Patient retrieved successfully");
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        converter.write(body, MediaType.APPLICATION_JSON, message);
+
+        assertEquals(message.getBodyAsBytes().length, message.getHeaders().getContentLength());
+        assertTrue(serverTiming(message).contains("serialization;dur="));
+        assertEquals(body, objectMapper.readValue(message.getBodyAsBytes(), Map.class));
+    }
+
+    @Test
+    @DisplayName("A body larger than the buffer is streamed without the serialization time")
+    void write_WhenBodyOutgrowsBuffer_ShouldStream() throws Exception {
+        Map<String, String> body = Map.of("message", "x".repeat(4096));
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        converter.write(body, MediaType.APPLICATION_JSON, message);
+
+        assertEquals(-1, message.getHeaders().getContentLength());
+        assertTrue(serverTiming(message).contains("total;dur="));
+        assertFalse(serverTiming(message).contains("serialization"));
+        assertEquals(body, objectMapper.readValue(message.getBodyAsBytes(), Map.class));
+    }
+
+    private static String serverTiming(MockHttpOutputMessage message) {
+        return message.getHeaders().getFirst(RequestTiming.SERVER_TIMING_HEADER);
+    }
+}
@@ -0,0 +1,46 @@
+package com.intellisoft.digitalhealthbackend.configurations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("A full bucket allows the burst, then reports the wait for the next token")
+    void tryAcquire_WhenBurstUsed_ShouldReturnWait() {
+        long now = 42L;
+        TokenBucket bucket = new TokenBucket(2.0, 3, now);
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(SECOND / 2, bucket.tryAcquire(now));
+        assertEquals(SECOND / 4, bucket.tryAcquire(now + SECOND / 4));
+    }
+
+    @Test
+    @DisplayName("Tokens refill at the configured rate up to the burst size")
+    void tryAcquire_AfterIdle_ShouldRefillUpToBurst() {
+        long now = -SECOND; // nanoTime may be negative
+        TokenBucket bucket = new TokenBucket(2.0, 2, now);
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 2));
+
+        long later = now + 10 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(SECOND / 2, bucket.tryAcquire(later));
+    }
+
+    @Test
+    @DisplayName("A non-positive rate or an empty burst is rejected")
+    void constructor_WithInvalidLimits_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+}
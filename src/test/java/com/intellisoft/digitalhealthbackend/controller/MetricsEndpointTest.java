@@ -0,0 +1,161 @@
+package com.intellisoft.digitalhealthbackend.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+    private static final String SESSION_METRICS_LOGGER =
+            "org.hibernate.engine.internal.StatisticalLoggingSessionEventListener";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+
+    @Value("${api.key.header:X-API-KEY}")
+    private String apiKeyHeader;
+
+    @Value("${test.api-key}")
+    private String apiKeyValue;
+
+    @Test
+    @DisplayName(
+            "Prometheus scrape has request, client, service, repository, pool, ORM and cache meters")
+    void prometheus_ShouldExposeLatencyHistogramsAndPoolAndHibernateMeters() throws Exception {
+        PatientWrapper patient =
+                PatientWrapper.builder()
+                        .identifier(ThreadLocalRandom.current().nextLong(30_000_000L, 40_000_000L))
+                        .givenName("Metric")
+                        .familyName("Scrape")
+                        .gender("FEMALE")
+                        .birthDate("1990-01-15")
+                        .build();
+        mockMvc.perform(
+                        post("/api/patients")
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(patient)))
+                .andExpect(status().isOk());
+
+        // no API key: the scrape endpoint is open like the rest of /actuator
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "http_server_requests_seconds_bucket{"
+                                                        + "error=\"none\",exception=\"none\","
+                                                        + "method=\"POST\",outcome=\"SUCCESS\","
+                                                        + "status=\"200\",uri=\"/api/patients\"")))
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "patient_service_seconds_bucket{"
+                                                        + "class=\"com.intellisoft"
+                                                        + ".digitalhealthbackend.service.impl"
+                                                        + ".PatientServiceImpl\","
+                                                        + "exception=\"none\","
+                                                        + "method=\"createPatient\"")))
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "spring_data_repository_invocations_seconds_bucket{"
+                                                        + "exception=\"None\","
+                                                        + "method=\"upsert\"")))
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "api_client_requests_total{client=\"default\","
+                                                        + "outcome=\"allowed\"")))
+                .andExpect(content().string(containsString("patient_concurrency_limit{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total{")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total{")))
+                .andExpect(
+                        content().string(containsString("hibernate_collections_fetches_total{")))
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "hibernate_second_level_cache_requests_total{")))
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "cache_evictions_total{cache=\"encounter\"")))
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "cache_gets_total{cache=\"patient-view\"")))
+                .andExpect(content().string(containsString("patient_ingestion_queue_depth ")))
+                .andExpect(
+                        content().string(containsString("patient_ingestion_flush_seconds_count ")))
+                .andExpect(
+                        content()
+                                .string(
+                                        containsString(
+                                                "patient_ingestion_observations_total{"
+                                                        + "outcome=\"stored\"")));
+    }
+
+    @Test
+    @DisplayName("Statistics are gathered without a session-metrics log block per session")
+    void statistics_ShouldNotLogSessionMetrics() throws Exception {
+        PatientWrapper patient =
+                PatientWrapper.builder()
+                        .identifier(ThreadLocalRandom.current().nextLong(40_000_000L, 50_000_000L))
+                        .givenName("Quiet")
+                        .familyName("Session")
+                        .gender("MALE")
+                        .birthDate("1988-04-02")
+                        .build();
+        Logger logger = (Logger) LoggerFactory.getLogger(SESSION_METRICS_LOGGER);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        Level level = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+        try {
+            mockMvc.perform(
+                            post("/api/patients")
+                                    .header(apiKeyHeader, apiKeyValue)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(patient)))
+                    .andExpect(status().isOk());
+        } finally {
+            logger.detachAppender(appender);
+            logger.setLevel(level);
+        }
+        assertTrue(appender.list.isEmpty(), () -> appender.list.get(0).getFormattedMessage());
+    }
+}
@@ -1,37 +1,56 @@
 package com.intellisoft.digitalhealthbackend.controller;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.intellisoft.digitalhealthbackend.dto.EncounterWrapper;
 import com.intellisoft.digitalhealthbackend.dto.EndEncounterWrapper;
 import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
 import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
 import com.intellisoft.digitalhealthbackend.enums.Gender;
 import com.intellisoft.digitalhealthbackend.models.Encounter;
+import com.intellisoft.digitalhealthbackend.models.Observation;
 import com.intellisoft.digitalhealthbackend.models.Patient;
 import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
+import com.intellisoft.digitalhealthbackend.repository.ObservationRepository;
 import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
@@ -43,11 +62,14 @@ class PatientControllerTest {
     @Autowired private ObjectMapper objectMapper;
     @Autowired private PatientRepository patientRepository;
     @Autowired private EncounterRepository encounterRepository;
+    @Autowired private ObservationRepository observationRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
 
     @Value("${api.key.header:X-API-KEY}")
     private String apiKeyHeader;
 
-    @Value("${api.key.secret:367293648}")
+    @Value("${test.api-key}")
     private String apiKeyValue;
 
     @Test
@@ -60,6 +82,7 @@ class PatientControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(patientWrapper)))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(1))
                 .andExpect(jsonPath("$.message", is("Patient created successfully")))
                 .andExpect(jsonPath("$.data").exists());
     }
@@ -106,10 +129,55 @@ class PatientControllerTest {
                                 .header(apiKeyHeader, apiKeyValue)
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(2))
                 .andExpect(jsonPath("$.message", is("Patient retrieved successfully")))
                 .andExpect(jsonPath("$.data").exists());
     }
 
+    @Test
+    @DisplayName("Responses report statements and time per phase in Server-Timing")
+    void serverTiming_ShouldReportStatementsAndPhases() throws Exception {
+        Long patientId = createTestPatient();
+        mockMvc.perform(
+                        get("/api/patients/{id}", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("db;desc=\"")))
+                .andExpect(header().string("Server-Timing", containsString("auth;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("service;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("serialization;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+
+        mockMvc.perform(get("/api/patients/{id}", patientId))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("Server-Timing", containsString("\"0 statements\"")));
+    }
+
+    @Test
+    @DisplayName("A client over its rate limit gets 429 with Retry-After before any SQL runs")
+    void rateLimit_WhenClientExceedsBurst_ShouldReturnTooManyRequests() throws Exception {
+        Long patientId = createTestPatient();
+        // the "throttled" client in application-test.yml allows a burst of two
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(
+                            get("/api/patients/{id}", patientId)
+                                    .header(apiKeyHeader, "throttled-test-key"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(
+                        get("/api/patients/{id}", patientId)
+                                .header(apiKeyHeader, "throttled-test-key"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status", is(429)))
+                .andExpect(QueryCount.atMost(0));
+
+        // other clients keep their own budget
+        mockMvc.perform(get("/api/patients/{id}", patientId).header(apiKeyHeader, apiKeyValue))
+                .andExpect(status().isOk());
+    }
+
     @Test
     @DisplayName("Retrieve a patient with invalid id")
     void retrievePatient_WithInvalidId_ShouldReturnNotFound() throws Exception {
@@ -134,6 +202,7 @@ class PatientControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(updatedPatient)))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(3))
                 .andExpect(jsonPath("$.message", is("Patient updated successfully")))
                 .andExpect(jsonPath("$.data").exists());
     }
@@ -161,6 +230,7 @@ class PatientControllerTest {
                                 .header(apiKeyHeader, apiKeyValue)
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(3))
                 .andExpect(jsonPath("$.message", is("Patient deleted successfully")));
     }
 
@@ -202,6 +272,7 @@ class PatientControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(encounterWrapper)))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(2))
                 .andExpect(jsonPath("$.message", is("Encounter added successfully")))
                 .andExpect(jsonPath("$.data").exists());
     }
@@ -230,6 +301,7 @@ class PatientControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(observationWrapper)))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(3))
                 .andExpect(jsonPath("$.message", is("Encounter added successfully")))
                 .andExpect(jsonPath("$.data").exists());
     }
@@ -247,6 +319,227 @@ class PatientControllerTest {
                 .andExpect(jsonPath("$.message", is("Encounter with the given id does not exist")));
     }
 
+    @Test
+    @DisplayName("Write responses and their statements do not grow with the patient's history")
+    void writeResponses_ShouldNotDependOnHistorySize() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<String> updateResponses = new ArrayList<>();
+        List<Long> updateStatements = new ArrayList<>();
+        List<String> encounterResponses = new ArrayList<>();
+        List<Long> encounterLoads = new ArrayList<>();
+        for (int encounters : new int[] {0, 12}) {
+            Long identifier = ThreadLocalRandom.current().nextLong(10000000L, 99999999L);
+            Long patientId = createPatientWithHistory(identifier, encounters);
+            PatientWrapper patientWrapper =
+                    PatientWrapper.builder()
+                            .identifier(identifier)
+                            .givenName("Renamed")
+                            .familyName("Patient")
+                            .gender("FEMALE")
+                            .birthDate("1988-04-12")
+                            .build();
+
+            statistics.clear();
+            String updated =
+                    mockMvc.perform(
+                                    put("/api/patients/{id}", patientId)
+                                            .header(apiKeyHeader, apiKeyValue)
+                                            .contentType(MediaType.APPLICATION_JSON)
+                                            .content(
+                                                    objectMapper.writeValueAsString(
+                                                            patientWrapper)))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.data.encounters").doesNotExist())
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString();
+            entityManager.flush();
+            updateStatements.add(statistics.getPrepareStatementCount());
+            updateResponses.add(withoutIds(updated, "id", "identifier"));
+
+            statistics.clear();
+            String encounter =
+                    mockMvc.perform(
+                                    post("/api/patients/add-encounter/{patientId}", patientId)
+                                            .header(apiKeyHeader, apiKeyValue)
+                                            .contentType(MediaType.APPLICATION_JSON)
+                                            .content(
+                                                    objectMapper.writeValueAsString(
+                                                            createSampleEncounterWrapper())))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.data.observations").doesNotExist())
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString();
+            entityManager.flush();
+            assertEquals(0, statistics.getCollectionLoadCount());
+            encounterLoads.add(statistics.getEntityLoadCount());
+            encounterResponses.add(withoutIds(encounter, "id"));
+            entityManager.clear();
+        }
+        assertEquals(updateResponses.get(0), updateResponses.get(1));
+        assertEquals(updateStatements.get(0), updateStatements.get(1));
+        assertEquals(encounterResponses.get(0), encounterResponses.get(1));
+        assertEquals(encounterLoads.get(0), encounterLoads.get(1));
+    }
+
+    @Test
+    @DisplayName("Queued observations are accepted with a tracking id")
+    void submitEncounterObservation_ShouldReturnAcceptedWithTrackingId() throws Exception {
+        Long encounterId = createTestEncounter();
+        String path = "/api/patients/add/observations/{encounterId}/async";
+        String response =
+                mockMvc.perform(
+                                post(path, encounterId)
+                                        .header(apiKeyHeader, apiKeyValue)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(
+                                                objectMapper.writeValueAsString(
+                                                        createSampleObservationWrapper())))
+                        .andExpect(status().isAccepted())
+                        .andExpect(jsonPath("$.status").value(202))
+                        .andExpect(jsonPath("$.data.status", is("QUEUED")))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String trackingId = objectMapper.readTree(response).at("/data/trackingId").asText();
+
+        mockMvc.perform(
+                        get("/api/patients/observations/ingestion/{trackingId}", trackingId)
+                                .header(apiKeyHeader, apiKeyValue))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.trackingId", is(trackingId)))
+                .andExpect(jsonPath("$.data.encounterId").value(encounterId));
+        mockMvc.perform(
+                        get("/api/patients/observations/ingestion/stats")
+                                .header(apiKeyHeader, apiKeyValue))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.capacity").value(10000))
+                .andExpect(jsonPath("$.data.accepted").isNumber());
+    }
+
+    @Test
+    @DisplayName("A vitals panel is inserted in one batch and only the new ids are returned")
+    void addEncounterObservations_ShouldInsertPanelInOneBatch() throws Exception {
+        Long encounterId = createTestEncounter();
+        entityManager.flush();
+        entityManager.clear();
+        List<ObservationWrapper> panel =
+                List.of("BP", "PULSE", "TEMP", "SPO2", "WEIGHT", "HEIGHT").stream()
+                        .map(
+                                code ->
+                                        ObservationWrapper.builder()
+                                                .code(code)
+                                                .value("1")
+                                                .effectiveDateTime("2025-11-01 11:30:15")
+                                                .build())
+                        .toList();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(
+                        post("/api/patients/add/observations/{encounterId}/batch", encounterId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(panel)))
+                .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(1))
+                .andExpect(jsonPath("$.message", is("Observations added successfully")))
+                .andExpect(jsonPath("$.data.encounterId").value(encounterId))
+                .andExpect(jsonPath("$.data.observationIds.length()").value(6));
+        entityManager.flush();
+        assertEquals(6, statistics.getEntityInsertCount());
+        // the encounter, unless the second-level cache has it; never the patient
+        assertTrue(statistics.getEntityLoadCount() <= 1);
+        assertEquals(0, statistics.getEntityStatistics(Patient.class.getName()).getLoadCount());
+        // encounter lookup and one batched insert, plus at most one sequence call
+        assertTrue(statistics.getPrepareStatementCount() <= 3);
+    }
+
+    @Test
+    @DisplayName("A panel with an invalid observation is rejected as a whole")
+    void addEncounterObservations_WithInvalidRow_ShouldRejectPanel() throws Exception {
+        Long encounterId = createTestEncounter();
+        List<ObservationWrapper> panel =
+                List.of(
+                        createSampleObservationWrapper(),
+                        ObservationWrapper.builder()
+                                .code("pulse")
+                                .value("72")
+                                .effectiveDateTime("2025-11-01 11:30:15")
+                                .build());
+        mockMvc.perform(
+                        post("/api/patients/add/observations/{encounterId}/batch", encounterId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(panel)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(
+                        jsonPath(
+                                "$.message",
+                                is(
+                                        "observation[1]: Code must contain only uppercase"
+                                                + " letters, numbers, underscores, and hyphens")));
+        assertEquals(
+                0,
+                observationRepository
+                        .findByPatientIdAndSoftDeleteFalse(
+                                encounterRepository
+                                        .findById(encounterId)
+                                        .orElseThrow()
+                                        .getPatient()
+                                        .getId(),
+                                PageRequest.of(0, 10))
+                        .getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Adding an observation runs the same statements however long the history is")
+    void addEncounterObservation_ShouldNotLoadEncounterHistory() throws Exception {
+        Long patientId =
+                createPagedPatient(ThreadLocalRandom.current().nextLong(10000000L, 99999999L));
+        List<Encounter> encounters = encounterRepository.findByPatientIdOrderById(patientId);
+        Encounter longEncounter = encounters.get(0);
+        for (int reading = 0; reading < 200; reading++) {
+            observationRepository.save(
+                    Observation.builder()
+                            .patient(longEncounter.getPatient())
+                            .encounter(longEncounter)
+                            .code("PULSE")
+                            .value(String.valueOf(60 + reading % 40))
+                            .effectiveDateTime(LocalDateTime.of(2025, 10, 1, 10, 0))
+                            .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (Long encounterId : List.of(encounters.get(1).getId(), longEncounter.getId())) {
+            statistics.clear();
+            mockMvc.perform(
+                            post("/api/patients/add/observations/{encounterId}", encounterId)
+                                    .header(apiKeyHeader, apiKeyValue)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(
+                                            objectMapper.writeValueAsString(
+                                                    createSampleObservationWrapper())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.code", is("BP-01")));
+            entityManager.flush();
+            // encounter lookup by id and the insert; no patient or collection loads
+            assertEquals(0, statistics.getQueryExecutionCount());
+            assertEquals(1, statistics.getEntityInsertCount());
+            assertTrue(statistics.getEntityLoadCount() <= 1);
+            assertEquals(
+                    0, statistics.getEntityStatistics(Patient.class.getName()).getLoadCount());
+            assertEquals(0, statistics.getCollectionLoadCount());
+            assertEquals(0, statistics.getEntityUpdateCount());
+            // plus at most one sequence call when the pooled id block runs out
+            assertTrue(statistics.getPrepareStatementCount() <= 3);
+        }
+    }
+
     @Test
     void endPatientEncounter_WithValidData_ShouldReturnSuccess() throws Exception {
         Long encounterId = createTestEncounter();
@@ -257,6 +550,7 @@ class PatientControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(encounterWrapper)))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(3))
                 .andExpect(jsonPath("$.message", is("Encounter ended successfully")));
     }
 
@@ -306,6 +600,7 @@ class PatientControllerTest {
                                 .param("size", String.valueOf(size))
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(3))
                 .andExpect(jsonPath("$.message", is("Patient encounters and Observations")))
                 .andExpect(jsonPath("$.data").exists());
     }
@@ -328,6 +623,7 @@ class PatientControllerTest {
                                 .header(apiKeyHeader, apiKeyValue)
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(3))
                 .andExpect(jsonPath("$.message", is("Patient encounters retrieved successfully")))
                 .andExpect(jsonPath("$.data").exists());
     }
@@ -351,6 +647,7 @@ class PatientControllerTest {
                                 .header(apiKeyHeader, apiKeyValue)
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(3))
                 .andExpect(jsonPath("$.message", is("Patient observations retrieved successfully")))
                 .andExpect(jsonPath("$.data").exists());
     }
@@ -366,6 +663,135 @@ class PatientControllerTest {
                 .andExpect(jsonPath("$.message", is("Patient not found")));
     }
 
+    @Test
+    @DisplayName("An unchanged patient is answered with 304 from the patient cache")
+    void retrievePatient_WithCurrentETag_ShouldReturnNotModified() throws Exception {
+        Long patientId = createTestPatient();
+        entityManager.flush();
+        String etag =
+                mockMvc.perform(
+                                get("/api/patients/{id}", patientId)
+                                        .header(apiKeyHeader, apiKeyValue))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                        .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                        .andExpect(jsonPath("$.data.version").doesNotExist())
+                        .andReturn()
+                        .getResponse()
+                        .getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(
+                        get("/api/patients/{id}", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(QueryCount.atMost(0))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(
+                        put("/api/patients/{id}", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                createSamplePatientWrapper())))
+                .andExpect(status().isOk());
+        entityManager.flush();
+        mockMvc.perform(
+                        get("/api/patients/{id}", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.data.givenName", is("Felix")));
+    }
+
+    @Test
+    @DisplayName("Unchanged encounters are answered with 304 after a version-only query")
+    void viewPatientEncounters_WithCurrentETag_ShouldReturnNotModified() throws Exception {
+        Long patientId = createTestPatientWithEncounter();
+        entityManager.flush();
+        String etag =
+                mockMvc.perform(
+                                get("/api/patients/{id}/encounters", patientId)
+                                        .header(apiKeyHeader, apiKeyValue))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.length()").value(1))
+                        .andReturn()
+                        .getResponse()
+                        .getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(
+                        get("/api/patients/{id}/encounters", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(QueryCount.atMost(1))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(
+                        post("/api/patients/add-encounter/{patientId}", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                createSampleEncounterWrapper())))
+                .andExpect(status().isOk());
+        mockMvc.perform(
+                        get("/api/patients/{id}/encounters", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.data.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("Observations honor If-Modified-Since and If-None-Match; cursor pages do not")
+    void viewPatientObservations_WhenNotModified_ShouldReturnNotModified() throws Exception {
+        Long encounterId = createTestEncounter();
+        Long patientId =
+                encounterRepository.findPatientIdByIdAndSoftDeleteFalse(encounterId).orElseThrow();
+        addObservation(encounterId);
+        entityManager.flush();
+        MvcResult first =
+                mockMvc.perform(
+                                get("/api/patients/{id}/observations", patientId)
+                                        .header(apiKeyHeader, apiKeyValue))
+                        .andExpect(status().isOk())
+                        .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        assertNotNull(etag);
+        assertNotNull(lastModified);
+
+        mockMvc.perform(
+                        get("/api/patients/{id}/observations", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified())
+                .andExpect(QueryCount.atMost(1));
+        mockMvc.perform(
+                        get("/api/patients/{id}/observations", patientId)
+                                .param("cursor", "")
+                                .header(apiKeyHeader, apiKeyValue)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        addObservation(encounterId);
+        mockMvc.perform(
+                        get("/api/patients/{id}/observations", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.data.length()").value(2));
+    }
+
     @Test
     @DisplayName("Retrieve patient encounters with pagination")
     void retrievePatientEncounters_WithPagination_ShouldReturnPaginatedResults() throws Exception {
@@ -402,6 +828,128 @@ class PatientControllerTest {
                 .andExpect(jsonPath("$.data.hasPrevious").exists());
     }
 
+    @Test
+    @DisplayName("Encounter search runs a fixed number of statements per page")
+    void retrievePatientEncounters_ShouldPageInDatabaseWithConstantStatements() throws Exception {
+        Long identifier = ThreadLocalRandom.current().nextLong(10000000L, 99999999L);
+        createPagedPatient(identifier);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int page = 0; page < 2; page++) {
+            statistics.clear();
+            mockMvc.perform(
+                            get("/api/patients")
+                                    .header(apiKeyHeader, apiKeyValue)
+                                    .param("family", "Patient")
+                                    .param("given", "Paged")
+                                    .param("identifier", String.valueOf(identifier))
+                                    .param("birthDate", "1988-04-12")
+                                    .param("page", String.valueOf(page))
+                                    .param("size", "5")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.totalEncounters").value(12))
+                    .andExpect(jsonPath("$.data.encounters.length()").value(5))
+                    .andExpect(jsonPath("$.data.encounters[0].observations.length()").value(3));
+            // patient lookup, encounter id page, count, encounters joined with observations
+            assertEquals(4, statistics.getPrepareStatementCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Encounter search with a cursor walks every encounter without counting")
+    void retrievePatientEncounters_WithCursor_ShouldWalkAllPages() throws Exception {
+        Long identifier = ThreadLocalRandom.current().nextLong(10000000L, 99999999L);
+        createPagedPatient(identifier);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<String> starts = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            statistics.clear();
+            String response =
+                    mockMvc.perform(
+                                    get("/api/patients")
+                                            .header(apiKeyHeader, apiKeyValue)
+                                            .param("family", "Patient")
+                                            .param("given", "Paged")
+                                            .param("identifier", String.valueOf(identifier))
+                                            .param("birthDate", "1988-04-12")
+                                            .param("cursor", cursor)
+                                            .param("size", "5")
+                                            .contentType(MediaType.APPLICATION_JSON))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.data.totalPages").doesNotExist())
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString();
+            // patient lookup, encounter id page, encounters joined with observations
+            assertEquals(3, statistics.getPrepareStatementCount());
+            JsonNode data = objectMapper.readTree(response).get("data");
+            data.get("encounters").forEach(encounter -> starts.add(encounter.get("start").asText()));
+            assertEquals(data.get("hasNext").asBoolean(), !data.get("nextCursor").isNull());
+            cursor = data.get("nextCursor").asText(null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(12, starts.size());
+        assertEquals(12, new HashSet<>(starts).size());
+        assertTrue(starts.get(0).compareTo(starts.get(11)) > 0);
+    }
+
+    @Test
+    @DisplayName("Observation listing with a cursor returns the next page after the cursor")
+    void viewPatientObservations_WithCursor_ShouldReturnNextPage() throws Exception {
+        Long patientId =
+                createPagedPatient(ThreadLocalRandom.current().nextLong(10000000L, 99999999L));
+
+        String firstPage =
+                mockMvc.perform(
+                                get("/api/patients/{id}/observations", patientId)
+                                        .header(apiKeyHeader, apiKeyValue)
+                                        .param("cursor", "")
+                                        .param("size", "30")
+                                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.observations.length()").value(30))
+                        .andExpect(
+                                jsonPath("$.data.observations[0].effectiveDateTime")
+                                        .value("2025-10-12T09:02:00"))
+                        .andExpect(jsonPath("$.data.hasNext").value(true))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String nextCursor = objectMapper.readTree(firstPage).at("/data/nextCursor").asText();
+
+        mockMvc.perform(
+                        get("/api/patients/{id}/observations", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .param("cursor", nextCursor)
+                                .param("size", "30")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.observations.length()").value(6))
+                .andExpect(
+                        jsonPath("$.data.observations[0].effectiveDateTime")
+                                .value("2025-10-02T09:02:00"))
+                .andExpect(jsonPath("$.data.hasNext").value(false))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Observation listing rejects a cursor it did not issue")
+    void viewPatientObservations_WithInvalidCursor_ShouldReturnError() throws Exception {
+        Long patientId = createTestPatient();
+        mockMvc.perform(
+                        get("/api/patients/{id}/observations", patientId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .param("cursor", "not-a-cursor")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message", is("Invalid cursor")));
+    }
+
     @Test
     @DisplayName("Retrieve patient not found should return error")
     void retrievePatient_NotFound_ShouldReturnError() throws Exception {
@@ -450,6 +998,152 @@ class PatientControllerTest {
                 .andExpect(jsonPath("$.message", is("Patient updated successfully")));
     }
 
+    @Test
+    @DisplayName("Bulk create patients from a JSON array reports every row")
+    void createPatients_WithJsonArray_ShouldReportEachRow() throws Exception {
+        Patient existingPatient =
+                Patient.builder()
+                        .identifier(23456789L)
+                        .givenName("Existing")
+                        .familyName("Patient")
+                        .gender(Gender.FEMALE)
+                        .birthDate(parseDate("1985-03-02"))
+                        .build();
+        patientRepository.save(existingPatient);
+        Patient deletedPatient =
+                Patient.builder()
+                        .identifier(23456790L)
+                        .givenName("Deleted")
+                        .familyName("Patient")
+                        .gender(Gender.MALE)
+                        .birthDate(parseDate("1979-07-21"))
+                        .build();
+        patientRepository.save(deletedPatient);
+        deletedPatient.setSoftDelete(true);
+        patientRepository.saveAndFlush(deletedPatient);
+
+        String payload =
+                objectMapper.writeValueAsString(
+                        List.of(
+                                createSamplePatientWrapper(),
+                                PatientWrapper.builder()
+                                        .identifier(23456789L)
+                                        .givenName("Duplicate")
+                                        .familyName("Patient")
+                                        .gender("FEMALE")
+                                        .birthDate("1985-03-02")
+                                        .build(),
+                                PatientWrapper.builder()
+                                        .identifier(23456790L)
+                                        .givenName("Restored")
+                                        .familyName("Patient")
+                                        .gender("MALE")
+                                        .birthDate("1979-07-21")
+                                        .build(),
+                                PatientWrapper.builder()
+                                        .identifier(34567890L)
+                                        .givenName("Invalid")
+                                        .familyName("Gender")
+                                        .gender("OTHER")
+                                        .birthDate("1990-01-01")
+                                        .build()));
+
+        mockMvc.perform(
+                        post("/api/patients/bulk")
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(QueryCount.atMost(2))
+                .andExpect(jsonPath("$.message", is("Bulk patient import completed")))
+                .andExpect(jsonPath("$.data.received").value(4))
+                .andExpect(jsonPath("$.data.created").value(1))
+                .andExpect(jsonPath("$.data.restored").value(1))
+                .andExpect(jsonPath("$.data.rejected").value(2))
+                .andExpect(jsonPath("$.data.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.data.results[0].patientId").exists())
+                .andExpect(jsonPath("$.data.results[1].message").value("Patient already exists"))
+                .andExpect(jsonPath("$.data.results[2].status").value("RESTORED"))
+                .andExpect(jsonPath("$.data.results[3].status").value("REJECTED"));
+    }
+
+    @Test
+    @DisplayName("Bulk create patients from an NDJSON stream")
+    void createPatients_WithNdjson_ShouldCreatePatients() throws Exception {
+        String payload =
+                objectMapper.writeValueAsString(createSamplePatientWrapper())
+                        + "\n"
+                        + objectMapper.writeValueAsString(
+                                PatientWrapper.builder()
+                                        .identifier(45678901L)
+                                        .givenName("Second")
+                                        .familyName("Patient")
+                                        .gender("FEMALE")
+                                        .birthDate("2001-12-31")
+                                        .build())
+                        + "\n"
+                        + objectMapper.writeValueAsString(createSamplePatientWrapper());
+
+        mockMvc.perform(
+                        post("/api/patients/bulk")
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.created").value(2))
+                .andExpect(jsonPath("$.data.rejected").value(1))
+                .andExpect(
+                        jsonPath("$.data.results[2].message")
+                                .value("Duplicate identifier in payload"));
+        assertTrue(
+                patientRepository.findByIdentifierAndSoftDeleteFalse(45678901L).isPresent());
+    }
+
+    @Test
+    @DisplayName("Bulk create rejects null rows and rows failing validation")
+    void createPatients_WithNullAndInvalidRows_ShouldRejectThem() throws Exception {
+        String payload =
+                "["
+                        + objectMapper.writeValueAsString(createSamplePatientWrapper())
+                        + ",null,"
+                        + objectMapper.writeValueAsString(
+                                PatientWrapper.builder()
+                                        .identifier(45678902L)
+                                        .givenName("R2-D2")
+                                        .familyName("Patient")
+                                        .gender("MALE")
+                                        .birthDate("1977-05-25")
+                                        .build())
+                        + "]";
+
+        mockMvc.perform(
+                        post("/api/patients/bulk")
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(3))
+                .andExpect(jsonPath("$.data.created").value(1))
+                .andExpect(jsonPath("$.data.rejected").value(2))
+                .andExpect(
+                        jsonPath("$.data.results[1].message")
+                                .value("Record must be a patient object"))
+                .andExpect(
+                        jsonPath("$.data.results[2].message")
+                                .value("Given name contains invalid characters"));
+    }
+
+    @Test
+    @DisplayName("Export history of a missing patient returns an error")
+    void exportPatientHistory_WithInvalidPatientId_ShouldReturnError() throws Exception {
+        mockMvc.perform(
+                        get("/api/patients/{id}/export", 99999L)
+                                .header(apiKeyHeader, apiKeyValue))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Patient not found"));
+    }
+
     public PatientWrapper createSamplePatientWrapper() {
         return PatientWrapper.builder()
                 .birthDate("1996-08-09")
@@ -476,11 +1170,70 @@ class PatientControllerTest {
                 .build();
     }
 
+    private void addObservation(Long encounterId) throws Exception {
+        mockMvc.perform(
+                        post("/api/patients/add/observations/{encounterId}", encounterId)
+                                .header(apiKeyHeader, apiKeyValue)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                createSampleObservationWrapper())))
+                .andExpect(status().isOk());
+    }
+
     private EndEncounterWrapper createEncounterWrapper() {
         return EndEncounterWrapper.builder().endEncounter("2025-11-01 11:30:15").build();
     }
 
-    private Long createTestPatient() throws ParseException {
+    /** A patient with 12 daily encounters of 3 observations each, flushed and detached. */
+    private Long createPagedPatient(Long identifier) {
+        return createPatientWithHistory(identifier, 12);
+    }
+
+    /** Zeroes generated fields of {@code data} so responses for different rows compare equal. */
+    private String withoutIds(String response, String... fields) throws Exception {
+        JsonNode json = objectMapper.readTree(response);
+        for (String field : fields) {
+            ((ObjectNode) json.get("data")).put(field, 0);
+        }
+        return json.toString();
+    }
+
+    private Long createPatientWithHistory(Long identifier, int encounters) {
+        Patient patient =
+                patientRepository.save(
+                        Patient.builder()
+                                .identifier(identifier)
+                                .givenName("Paged")
+                                .familyName("Patient")
+                                .gender(Gender.FEMALE)
+                                .birthDate(parseDate("1988-04-12"))
+                                .build());
+        for (int day = 1; day <= encounters; day++) {
+            Encounter encounter =
+                    encounterRepository.save(
+                            Encounter.builder()
+                                    .patient(patient)
+                                    .encounterDate(parseDate("2025-10-01"))
+                                    .start(LocalDateTime.of(2025, 10, day, 9, 0))
+                                    .build());
+            for (int reading = 0; reading < 3; reading++) {
+                observationRepository.save(
+                        Observation.builder()
+                                .patient(patient)
+                                .encounter(encounter)
+                                .code("PULSE")
+                                .value(String.valueOf(70 + reading))
+                                .effectiveDateTime(LocalDateTime.of(2025, 10, day, 9, reading))
+                                .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return patient.getId();
+    }
+
+    private Long createTestPatient() {
         // Generate a unique identifier to avoid conflicts
         Long identifier = ThreadLocalRandom.current().nextLong(10000000L, 99999999L);
         Patient patient =
@@ -495,7 +1248,7 @@ class PatientControllerTest {
         return savedPatient.getId();
     }
 
-    private Long createTestPatientWithEncounter() throws ParseException {
+    private Long createTestPatientWithEncounter() {
         // Generate a unique identifier to avoid conflicts
         Long identifier = ThreadLocalRandom.current().nextLong(10000000L, 99999999L);
         Patient patient =
@@ -519,7 +1272,7 @@ class PatientControllerTest {
         return savedPatient.getId();
     }
 
-    private Long createTestEncounter() throws ParseException {
+    private Long createTestEncounter() {
         // First create a patient
         Long identifier = ThreadLocalRandom.current().nextLong(10000000L, 99999999L);
         Patient patient =
@@ -543,9 +1296,7 @@ class PatientControllerTest {
         return savedEncounter.getId();
     }
 
-    private Date parseDate(String date) throws ParseException {
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-        formatter.setLenient(false);
-        return formatter.parse(date);
+    private LocalDate parseDate(String date) {
+        return LocalDate.parse(date);
     }
 }
@@ -0,0 +1,46 @@
+package com.intellisoft.digitalhealthbackend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.intellisoft.digitalhealthbackend.configurations.RequestTiming;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Reads the statement count of a request from its {@code Server-Timing} header, so that endpoint
+ * tests can cap the number of SQL statements and catch N+1 regressions.
+ */
+final class QueryCount {
+    private static final Pattern STATEMENTS = Pattern.compile("db;desc=\"(\\d+) statements\"");
+
+    private QueryCount() {}
+
+    /** Fails when the request ran more than {@code max} SQL statements. */
+    static ResultMatcher atMost(int max) {
+        return result -> {
+            int statements = of(result);
+            assertTrue(
+                    statements <= max,
+                    () ->
+                            result.getRequest().getMethod()
+                                    + " "
+                                    + result.getRequest().getRequestURI()
+                                    + " ran "
+                                    + statements
+                                    + " statements, at most "
+                                    + max
+                                    + " expected");
+        };
+    }
+
+    static int of(MvcResult result) {
+        String header = result.getResponse().getHeader(RequestTiming.SERVER_TIMING_HEADER);
+        assertNotNull(header, "No " + RequestTiming.SERVER_TIMING_HEADER + " header");
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertTrue(matcher.find(), () -> "No statement count in " + header);
+        return Integer.parseInt(matcher.group(1));
+    }
+}
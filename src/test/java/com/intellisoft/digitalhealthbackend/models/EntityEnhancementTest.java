@@ -0,0 +1,148 @@
+package com.intellisoft.digitalhealthbackend.models;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.intellisoft.digitalhealthbackend.enums.Gender;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The entities are bytecode enhanced at build time: setters record which attributes changed, so a
+ * flush asks each entity for its dirty attributes instead of diffing every field of every managed
+ * entity against its load-time snapshot.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityEnhancementTest {
+    private static final int OBSERVATIONS = 2_000;
+
+    @PersistenceContext private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Entities are enhanced for inline dirty tracking and lazy attributes")
+    void entities_ShouldBeEnhanced() {
+        for (Class<?> entity : List.of(Patient.class, Encounter.class, Observation.class)) {
+            assertTrue(ManagedEntity.class.isAssignableFrom(entity), entity::getName);
+            assertTrue(SelfDirtinessTracker.class.isAssignableFrom(entity), entity::getName);
+            assertTrue(
+                    PersistentAttributeInterceptable.class.isAssignableFrom(entity),
+                    entity::getName);
+        }
+        SessionFactoryImplementor sessionFactory =
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        for (Class<?> entity : List.of(Patient.class, Encounter.class)) {
+            assertTrue(
+                    sessionFactory
+                            .getMappingMetamodel()
+                            .getEntityDescriptor(entity)
+                            .getEntityMetamodel()
+                            .isDynamicUpdate(),
+                    entity::getName);
+        }
+    }
+
+    @Test
+    @DisplayName("Builders, getters and setters behave as before and only real changes are dirty")
+    void setters_ShouldTrackOnlyChangedAttributes() {
+        Patient patient =
+                Patient.builder()
+                        .identifier(34477307L)
+                        .givenName("John")
+                        .familyName("Doe")
+                        .gender(Gender.MALE)
+                        .birthDate(LocalDate.of(1994, 1, 1))
+                        .build();
+        assertEquals("John", patient.getGivenName());
+        assertEquals(LocalDate.of(1994, 1, 1), patient.getBirthDate());
+
+        SelfDirtinessTracker tracker = (SelfDirtinessTracker) patient;
+        tracker.$$_hibernate_clearDirtyAttributes();
+        patient.setFamilyName("Doe");
+        assertFalse(tracker.$$_hibernate_hasDirtyAttributes());
+
+        patient.setGivenName("Jane");
+        assertEquals("Jane", patient.getGivenName());
+        assertArrayEquals(new String[] {"givenName"}, tracker.$$_hibernate_getDirtyAttributes());
+    }
+
+    @Test
+    @DisplayName("Flushing many managed entities updates only the changed one, and only its column")
+    void flush_ShouldUpdateOnlyTheModifiedEntity() {
+        Long patientId = seedPatientWithObservations();
+        Statistics statistics =
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionTemplate.executeWithoutResult(
+                status -> {
+                    List<Observation> observations =
+                            entityManager
+                                    .createQuery(
+                                            "SELECT o FROM Observation o WHERE o.patient.id ="
+                                                    + " :patientId",
+                                            Observation.class)
+                                    .setParameter("patientId", patientId)
+                                    .getResultList();
+                    assertEquals(OBSERVATIONS, observations.size());
+                    Patient patient = entityManager.find(Patient.class, patientId);
+
+                    long updatesBefore = statistics.getEntityUpdateCount();
+                    entityManager.flush();
+                    assertEquals(updatesBefore, statistics.getEntityUpdateCount());
+
+                    patient.setGivenName("Flushed");
+                    entityManager.flush();
+                    assertEquals(updatesBefore + 1, statistics.getEntityUpdateCount());
+                });
+
+        Map<String, Object> row =
+                jdbcTemplate.queryForMap(
+                        "SELECT given_name, family_name FROM \"tb_patient\" WHERE id = ?",
+                        patientId);
+        assertEquals("Flushed", row.get("given_name"));
+        assertEquals("Enhanced", row.get("family_name"));
+    }
+
+    private Long seedPatientWithObservations() {
+        jdbcTemplate.update(
+                "INSERT INTO \"tb_patient\"(identifier, given_name, family_name, gender)"
+                        + " VALUES (80000001, 'Dirty', 'Enhanced', 'FEMALE')");
+        Long patientId =
+                jdbcTemplate.queryForObject(
+                        "SELECT id FROM \"tb_patient\" WHERE identifier = 80000001", Long.class);
+        jdbcTemplate.update(
+                "INSERT INTO \"tb_encounter\"(patient_id, \"encounter-start\", encounter_date)"
+                        + " VALUES (?, TIMESTAMP '2025-01-01 08:00:00', DATE '2025-01-01')",
+                patientId);
+        jdbcTemplate.update(
+                "INSERT INTO tb_observation(patient_id, encounter_id, code,"
+                        + " \"observation_value\", effective_date_time) SELECT e.patient_id,"
+                        + " e.id, 'PULSE', '72', e.\"encounter-start\" FROM \"tb_encounter\" e,"
+                        + " SYSTEM_RANGE(1, ?) WHERE e.patient_id = ?",
+                OBSERVATIONS,
+                patientId);
+        return patientId;
+    }
+}
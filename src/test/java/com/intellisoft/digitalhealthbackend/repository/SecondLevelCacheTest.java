@@ -0,0 +1,217 @@
+package com.intellisoft.digitalhealthbackend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.intellisoft.digitalhealthbackend.dto.EncounterView;
+import com.intellisoft.digitalhealthbackend.dto.EncounterWrapper;
+import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
+import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import com.intellisoft.digitalhealthbackend.models.Encounter;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+import com.intellisoft.digitalhealthbackend.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import javax.cache.CacheManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Encounters, patients and encounter observation lists are served from the second-level cache and
+ * demographic searches from the query cache, and neither outlives a soft delete or a restore.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+    private static final String BIRTH_DATE = "1988-03-09";
+
+    @Autowired private PatientService patientService;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private EncounterRepository encounterRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private CacheManager secondLevelCacheManager;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Active encounter lookups after the first are answered without SQL")
+    void findByIdAndSoftDeleteFalse_ShouldHitEncounterRegion() {
+        EncounterView encounter = addEncounter(createPatient(newIdentifier()).id());
+        entityManagerFactory.getCache().evictAll();
+
+        Long encounterId = encounter.id();
+        assertEquals(
+                1, statements(() -> encounterRepository.findByIdAndSoftDeleteFalse(encounterId)));
+        long hits = statistics.getDomainDataRegionStatistics("encounter").getHitCount();
+        assertEquals(
+                0, statements(() -> encounterRepository.findByIdAndSoftDeleteFalse(encounterId)));
+        assertEquals(
+                0,
+                statements(
+                        () ->
+                                encounterRepository.findPatientIdByIdAndSoftDeleteFalse(
+                                        encounterId)));
+        assertEquals(
+                hits + 2, statistics.getDomainDataRegionStatistics("encounter").getHitCount());
+
+        // versioned entities are rewritten in the region on update, not just invalidated
+        patientService.endPatientEncounter(encounterId, "2025-11-01 11:00:00");
+        assertEquals(
+                0, statements(() -> encounterRepository.findByIdAndSoftDeleteFalse(encounterId)));
+        Encounter ended = encounterRepository.findByIdAndSoftDeleteFalse(encounterId).orElseThrow();
+        assertNotNull(ended.getEnd());
+        assertEquals(1L, ended.getVersion());
+    }
+
+    @Test
+    @DisplayName("An observation insert evicts the cached observation list of its encounter")
+    void observations_ShouldBeCachedUntilAnObservationIsAdded() {
+        EncounterView encounter = addEncounter(createPatient(newIdentifier()).id());
+        addObservation(encounter.id(), "72");
+        entityManagerFactory.getCache().evictAll();
+
+        assertEquals(1, observationCount(encounter.id()));
+        assertEquals(0, statements(() -> observationCount(encounter.id())));
+
+        addObservation(encounter.id(), "80");
+        assertEquals(2, observationCount(encounter.id()), "the cached list was not evicted");
+    }
+
+    @Test
+    @DisplayName("Demographic searches are cached, and dropped by soft delete, restore and create")
+    void demographicSearch_ShouldFollowSoftDeleteAndRestore() {
+        long identifier = newIdentifier();
+        assertTrue(search(identifier).isEmpty());
+        PatientView patient = createPatient(identifier);
+        assertTrue(search(identifier).isPresent(), "the empty result was not dropped on create");
+
+        long hits = statistics.getQueryCacheHitCount();
+        assertEquals(0, statements(() -> search(identifier)));
+        assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+        assertEquals(
+                0, statements(() -> patientRepository.findByIdAndSoftDeleteFalse(patient.id())));
+
+        patientService.deletePatient(patient.id());
+        assertTrue(search(identifier).isEmpty());
+        assertTrue(patientRepository.findByIdAndSoftDeleteFalse(patient.id()).isEmpty());
+
+        // restored by the MERGE upsert, which Hibernate does not see
+        createPatient(identifier);
+        assertTrue(search(identifier).isPresent(), "the empty result was not dropped on restore");
+        assertTrue(patientRepository.findByIdAndSoftDeleteFalse(patient.id()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Each region has its own bound, expiry and meters")
+    void regions_ShouldHaveTheirOwnPolicyAndStatistics() {
+        Policy<?, ?> encounter = policy("encounter");
+        assertEquals(20_000, encounter.eviction().orElseThrow().getMaximum());
+        assertEquals(
+                Duration.ofMinutes(30),
+                encounter.expireAfterAccess().orElseThrow().getExpiresAfter());
+        Policy<?, ?> patient = policy("patient");
+        assertEquals(10_000, patient.eviction().orElseThrow().getMaximum());
+        assertEquals(
+                Duration.ofMinutes(10), patient.expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertTrue(policy("default-update-timestamps-region").eviction().isEmpty());
+
+        for (String region :
+                new String[] {
+                    "patient",
+                    "encounter",
+                    "observation",
+                    "encounter-observations",
+                    "patient-demographics"
+                }) {
+            assertNotNull(
+                    meterRegistry.find("cache.evictions").tag("cache", region).functionCounter(),
+                    region);
+        }
+    }
+
+    private Policy<?, ?> policy(String region) {
+        return secondLevelCacheManager
+                .getCache(region)
+                .unwrap(com.github.benmanes.caffeine.cache.Cache.class)
+                .policy();
+    }
+
+    private long statements(Supplier<?> action) {
+        long before = statistics.getPrepareStatementCount();
+        action.get();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private int observationCount(Long encounterId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.find(Encounter.class, encounterId).getObservations().size();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private Optional<Patient> search(long identifier) {
+        return patientRepository
+                .findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(
+                        "Region", "Cached", identifier, LocalDate.parse(BIRTH_DATE));
+    }
+
+    private PatientView createPatient(long identifier) {
+        return (PatientView)
+                patientService
+                        .createPatient(
+                                PatientWrapper.builder()
+                                        .identifier(identifier)
+                                        .givenName("Cached")
+                                        .familyName("Region")
+                                        .gender("FEMALE")
+                                        .birthDate(BIRTH_DATE)
+                                        .build())
+                        .data();
+    }
+
+    private EncounterView addEncounter(Long patientId) {
+        return (EncounterView)
+                patientService
+                        .addPatientEncounters(
+                                patientId,
+                                EncounterWrapper.builder()
+                                        .patient(patientId)
+                                        .start("2025-11-01 10:00:00")
+                                        .encounterDate("2025-11-01")
+                                        .build())
+                        .data();
+    }
+
+    private void addObservation(Long encounterId, String value) {
+        patientService.addEncounterObservation(
+                encounterId, new ObservationWrapper("PULSE", value, "2025-11-01 10:30:00"));
+    }
+
+    private static long newIdentifier() {
+        return ThreadLocalRandom.current().nextLong(50_000_000L, 60_000_000L);
+    }
+}
@@ -0,0 +1,234 @@
+package com.intellisoft.digitalhealthbackend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Checks what changeset 007 changed for the soft-delete aware lookups against seeded data. Their
+ * {@code EXPLAIN ANALYZE} plans are captured with the dropped indexes recreated and without them,
+ * both without hints: the optimizer already preferred the composite indexes from 006, so reads are
+ * unchanged and the assertions only pin that they do not regress. What 007 removes is write
+ * overhead, measured as the cost of inserting observations with and without the dropped indexes.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SoftDeleteIndexPlanTest {
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+    private static final long FIRST_IDENTIFIER = 60_000_000L;
+    private static final int INSERTED_ROWS = 5_000;
+
+    /** The indexes changeset 007 dropped, as 001 created them. */
+    private static final Map<String, String> DROPPED_INDEXES =
+            Map.of(
+                    "idx_patients_soft_delete", "\"tb_patient\"(\"soft_delete\")",
+                    "idx_patients_identifier", "\"tb_patient\"(identifier)",
+                    "idx_patients_family_name", "\"tb_patient\"(family_name)",
+                    "idx_encounters_soft_delete", "\"tb_encounter\"(\"soft-delete\")",
+                    "idx_encounters_patient_id", "\"tb_encounter\"(patient_id)",
+                    "idx_observation_soft_delete", "tb_observation(\"soft_delete\")",
+                    "idx_observation_patient_id", "tb_observation(patient_id)",
+                    "idx_observation_encounter_id", "tb_observation(encounter_id)");
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private long patientId;
+    private long encounterId;
+
+    /**
+     * 200 patients with 20 encounters each, a quarter of them soft-deleted, and 5 observations per
+     * encounter, two of them soft-deleted.
+     */
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update(
+                "INSERT INTO \"tb_patient\"(identifier, given_name, family_name, gender,"
+                        + " birth_date) SELECT ? + \"X\", 'Plan', 'Patient' || \"X\", 'FEMALE',"
+                        + " DATE '1985-06-15' FROM SYSTEM_RANGE(1, 200)",
+                FIRST_IDENTIFIER);
+        jdbcTemplate.update(
+                "INSERT INTO \"tb_encounter\"(patient_id, \"encounter-start\", encounter_date,"
+                        + " \"soft-delete\") SELECT p.id, TIMESTAMP '2025-01-01 08:00:00'"
+                        + " + r.\"X\" * INTERVAL '1' DAY, DATE '2025-01-01' + r.\"X\""
+                        + " * INTERVAL '1' DAY, MOD(r.\"X\", 4) = 0 FROM \"tb_patient\" p,"
+                        + " SYSTEM_RANGE(1, 20) r WHERE p.identifier > ?",
+                FIRST_IDENTIFIER);
+        jdbcTemplate.update(
+                "INSERT INTO tb_observation(patient_id, encounter_id, code,"
+                        + " \"observation_value\", effective_date_time, \"soft_delete\") SELECT"
+                        + " e.patient_id, e.id, 'PULSE', '72', e.\"encounter-start\" + r.\"X\""
+                        + " * INTERVAL '1' MINUTE, r.\"X\" > 3 FROM \"tb_encounter\" e,"
+                        + " SYSTEM_RANGE(1, 5) r");
+        jdbcTemplate.execute("ANALYZE");
+        patientId =
+                jdbcTemplate.queryForObject(
+                        "SELECT id FROM \"tb_patient\" WHERE identifier = ?",
+                        Long.class,
+                        FIRST_IDENTIFIER + 100);
+        encounterId =
+                jdbcTemplate.queryForObject(
+                        "SELECT MIN(id) FROM \"tb_encounter\" WHERE patient_id = ? AND"
+                                + " \"soft-delete\" = FALSE",
+                        Long.class,
+                        patientId);
+    }
+
+    @Test
+    @DisplayName("Counting a patient's active encounters reads no more rows than before 007")
+    void countActiveEncounters_ShouldUsePatientStartIndex() {
+        String query =
+                "SELECT COUNT(*) FROM \"tb_encounter\" WHERE patient_id = ? AND"
+                        + " \"soft-delete\" = FALSE";
+
+        String before = planBefore(query, patientId);
+        String after = plan(query, patientId);
+
+        assertTrue(after.contains("idx_encounters_patient_start"), after);
+        assertTrue(scanCount(after) <= scanCount(before), before + "\n" + after);
+    }
+
+    @Test
+    @DisplayName("A patient's latest observations read no more rows than before 007")
+    void latestObservations_ShouldUsePatientEffectiveIndex() {
+        String query =
+                "SELECT id, code, \"observation_value\", effective_date_time FROM tb_observation"
+                        + " WHERE patient_id = ? AND \"soft_delete\" = FALSE ORDER BY"
+                        + " effective_date_time DESC, id DESC FETCH FIRST 10 ROWS ONLY";
+
+        String before = planBefore(query, patientId);
+        String after = plan(query, patientId);
+
+        assertTrue(after.contains("idx_observation_patient_effective"), after);
+        assertTrue(scanCount(after) <= scanCount(before), before + "\n" + after);
+    }
+
+    @Test
+    @DisplayName("An encounter's observations use the foreign key index instead of its duplicate")
+    void encounterObservations_ShouldUseForeignKeyIndex() {
+        String query =
+                "SELECT id, code, \"observation_value\", effective_date_time FROM tb_observation"
+                        + " WHERE encounter_id = ? AND \"soft_delete\" = FALSE ORDER BY"
+                        + " effective_date_time, id";
+
+        String before = planBefore(query, encounterId);
+        String after = plan(query, encounterId);
+
+        assertTrue(after.contains("fk_observation_encounter"), after);
+        assertTrue(scanCount(after) <= scanCount(before), before + "\n" + after);
+    }
+
+    @Test
+    @DisplayName("The demographic lookup resolves one row through a selective index")
+    void demographicLookup_ShouldUseUniqueIdentifierIndex() {
+        String query =
+                "SELECT id FROM \"tb_patient\" WHERE family_name = 'Patient100' AND"
+                        + " given_name = 'Plan' AND identifier = ? AND birth_date ="
+                        + " DATE '1985-06-15' AND \"soft_delete\" = FALSE";
+
+        String before = planBefore(query, FIRST_IDENTIFIER + 100);
+        String after = plan(query, FIRST_IDENTIFIER + 100);
+
+        // the unique identifier index and idx_patients_search tie at one row each; which one wins
+        // depends on the order H2 keeps the table's indexes in, which ALTER TABLE rewrites
+        assertTrue(
+                after.contains("identifier = ?1 */") || after.contains("idx_patients_search"),
+                after);
+        assertTrue(scanCount(after) <= 2, after);
+        assertTrue(scanCount(after) <= scanCount(before), before + "\n" + after);
+    }
+
+    @Test
+    @DisplayName("Observation inserts maintain three fewer indexes after 007")
+    void observationInsert_ShouldMaintainFewerIndexes() {
+        long before = withDroppedIndexes(this::insertNanos);
+        long after = insertNanos();
+        log.info(
+                "Inserting {} observations: {} ms with the dropped indexes, {} ms without",
+                INSERTED_ROWS,
+                TimeUnit.NANOSECONDS.toMillis(before),
+                TimeUnit.NANOSECONDS.toMillis(after));
+
+        assertEquals(
+                indexCount("tb_observation") + 3,
+                withDroppedIndexes(() -> indexCount("tb_observation")));
+    }
+
+    /** Recreates the indexes changeset 007 dropped for the duration of {@code action}. */
+    private <T> T withDroppedIndexes(Supplier<T> action) {
+        DROPPED_INDEXES.forEach(
+                (index, definition) ->
+                        jdbcTemplate.execute("CREATE INDEX " + index + " ON " + definition));
+        try {
+            return action.get();
+        } finally {
+            DROPPED_INDEXES.keySet().forEach(index -> jdbcTemplate.execute("DROP INDEX " + index));
+        }
+    }
+
+    private String planBefore(String query, Object parameter) {
+        String plan = withDroppedIndexes(() -> explain(query, parameter));
+        log.info("Before 007:\n{}", plan);
+        return plan;
+    }
+
+    private String plan(String query, Object parameter) {
+        String plan = explain(query, parameter);
+        log.info("After 007:\n{}", plan);
+        return plan;
+    }
+
+    private String explain(String query, Object parameter) {
+        return jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + query, String.class, parameter);
+    }
+
+    /** Best of three timed inserts of {@link #INSERTED_ROWS} observations, after one warm-up. */
+    private long insertNanos() {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 4; round++) {
+            long started = System.nanoTime();
+            jdbcTemplate.update(
+                    "INSERT INTO tb_observation(patient_id, encounter_id, code,"
+                            + " \"observation_value\", effective_date_time) SELECT ?, ?,"
+                            + " 'INSERT-COST', '72', TIMESTAMP '2025-06-01 08:00:00' + \"X\""
+                            + " * INTERVAL '1' SECOND FROM SYSTEM_RANGE(1, ?)",
+                    patientId,
+                    encounterId,
+                    INSERTED_ROWS);
+            long elapsed = System.nanoTime() - started;
+            jdbcTemplate.update("DELETE FROM tb_observation WHERE code = 'INSERT-COST'");
+            if (round > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best;
+    }
+
+    private int indexCount(String table) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.indexes WHERE table_name = ?",
+                Integer.class,
+                table);
+    }
+
+    private static long scanCount(String plan) {
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        assertTrue(matcher.find(), () -> "No scanCount in " + plan);
+        return Long.parseLong(matcher.group(1));
+    }
+}
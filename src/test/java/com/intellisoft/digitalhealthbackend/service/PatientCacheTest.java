@@ -0,0 +1,129 @@
+package com.intellisoft.digitalhealthbackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.intellisoft.digitalhealthbackend.dto.PatientCacheStats;
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
+import com.intellisoft.digitalhealthbackend.enums.Gender;
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import com.intellisoft.digitalhealthbackend.models.Patient;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Optional;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class PatientCacheTest {
+
+    @Mock private PatientRepository patientRepository;
+
+    @Mock private EntityManagerFactory entityManagerFactory;
+
+    @Mock private Cache secondLevelCache;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PatientCache patientCache;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        lenient().when(secondLevelCache.unwrap(Cache.class)).thenReturn(secondLevelCache);
+        patientCache =
+                new PatientCache(
+                        patientRepository,
+                        entityManagerFactory,
+                        meterRegistry,
+                        100,
+                        Duration.ofMinutes(5));
+        patient =
+                Patient.builder()
+                        .identifier(34477307L)
+                        .givenName("John")
+                        .familyName("Doe")
+                        .gender(Gender.MALE)
+                        .build();
+        ReflectionTestUtils.setField(patient, "id", 1L);
+        ReflectionTestUtils.setField(patient, "softDelete", false);
+    }
+
+    @Test
+    @DisplayName("Repeated lookups by id hit the database once")
+    void findById_ShouldLoadOnceAndThenHit() {
+        when(patientRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(patient));
+
+        PatientView first = patientCache.getById(1L);
+        PatientView second = patientCache.getById(1L);
+
+        assertEquals(first, second);
+        assertEquals("John", second.givenName());
+        verify(patientRepository, times(1)).findByIdAndSoftDeleteFalse(1L);
+        PatientCacheStats stats = patientCache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+        assertEquals(
+                1,
+                meterRegistry
+                        .get("cache.gets")
+                        .tags("cache", "patient-view", "result", "hit")
+                        .functionCounter()
+                        .count());
+    }
+
+    @Test
+    @DisplayName("Evicting a patient forces the next lookup back to the database")
+    void evict_ShouldReloadOnNextLookup() {
+        when(patientRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(patient));
+        patientCache.getById(1L);
+
+        patient.setGivenName("Jane");
+        patientCache.evict(1L, patient.getIdentifier());
+
+        assertEquals("Jane", patientCache.getById(1L).givenName());
+        verify(patientRepository, times(2)).findByIdAndSoftDeleteFalse(1L);
+        assertEquals(1, patientCache.stats().invalidations());
+    }
+
+    @Test
+    @DisplayName("Lookups by identifier reuse the entry cached by id")
+    void findByIdentifier_ShouldUseIdentifierIndex() {
+        when(patientRepository.findByIdentifierAndSoftDeleteFalse(34477307L))
+                .thenReturn(Optional.of(patient));
+
+        assertTrue(patientCache.findByIdentifier(34477307L).isPresent());
+        assertEquals(1L, patientCache.findByIdentifier(34477307L).get().id());
+        assertEquals(1L, patientCache.getById(1L).id());
+
+        verify(patientRepository, times(1)).findByIdentifierAndSoftDeleteFalse(34477307L);
+        verify(patientRepository, times(0)).findByIdAndSoftDeleteFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Missing patients are not cached")
+    void getById_WhenMissing_ShouldThrowAndNotCache() {
+        when(patientRepository.findByIdAndSoftDeleteFalse(9L)).thenReturn(Optional.empty());
+
+        assertThrows(PatientException.class, () -> patientCache.getById(9L));
+        assertThrows(PatientException.class, () -> patientCache.getById(9L));
+
+        verify(patientRepository, times(2)).findByIdAndSoftDeleteFalse(9L);
+        assertEquals(0, patientCache.stats().size());
+    }
+}
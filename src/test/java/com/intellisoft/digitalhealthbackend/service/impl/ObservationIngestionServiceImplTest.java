@@ -0,0 +1,296 @@
+package com.intellisoft.digitalhealthbackend.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.intellisoft.digitalhealthbackend.dto.IngestionQueueStats;
+import com.intellisoft.digitalhealthbackend.dto.IngestionReceipt;
+import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.dto.PatientEncounter;
+import com.intellisoft.digitalhealthbackend.enums.IngestionStatus;
+import com.intellisoft.digitalhealthbackend.exceptions.IngestionUnavailableException;
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import com.intellisoft.digitalhealthbackend.models.Observation;
+import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
+import com.intellisoft.digitalhealthbackend.repository.ObservationRepository;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ObservationIngestionServiceImplTest {
+
+    @Mock private EncounterRepository encounterRepository;
+
+    @Mock private PatientRepository patientRepository;
+
+    @Mock private ObservationRepository observationRepository;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObservationWrapper pulse =
+            ObservationWrapper.builder()
+                    .code("PULSE")
+                    .value("72")
+                    .effectiveDateTime("2025-11-01 10:30:00")
+                    .build();
+    private final AtomicLong nextObservationId = new AtomicLong(100);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ObservationIngestionServiceImpl ingestionService;
+
+    @AfterEach
+    void tearDown() {
+        if (ingestionService.isRunning()) {
+            ingestionService.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Queued observations are stored in one batch and their receipts carry the ids")
+    void submitObservation_ShouldStoreBatchAndReportIds() {
+        // long interval: only the third row can trigger the flush
+        ingestionService = ingestionService(100, 3, Duration.ofSeconds(5));
+        when(encounterRepository.findPatientEncountersByIdIn(anyCollection()))
+                .thenReturn(List.of(new PatientEncounter(1L, 10L)));
+        when(observationRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+        ingestionService.start();
+
+        List<String> trackingIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            IngestionReceipt receipt =
+                    (IngestionReceipt) ingestionService.submitObservation(10L, pulse).data();
+            assertEquals(IngestionStatus.QUEUED, receipt.status());
+            trackingIds.add(receipt.trackingId());
+        }
+        ingestionService.stop();
+
+        ArgumentCaptor<List<Observation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(observationRepository, times(1)).saveAll(saved.capture());
+        assertEquals(3, saved.getValue().size());
+        for (String trackingId : trackingIds) {
+            IngestionReceipt receipt = receipt(trackingId);
+            assertEquals(IngestionStatus.STORED, receipt.status());
+            assertNotNull(receipt.observationId());
+        }
+        assertEquals(3, stats().stored());
+        assertEquals(1, stats().flushes());
+        assertEquals(
+                3,
+                meterRegistry
+                        .get("patient.ingestion.observations")
+                        .tag("outcome", "stored")
+                        .functionCounter()
+                        .count());
+        assertEquals(1, meterRegistry.get("patient.ingestion.flush").timer().count());
+        assertEquals(0, meterRegistry.get("patient.ingestion.queue.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Observations for a missing encounter are rejected on flush")
+    void submitObservation_WhenEncounterMissing_ShouldRejectOnFlush() {
+        ingestionService = ingestionService(100, 1);
+        ingestionService.start();
+        String trackingId =
+                ((IngestionReceipt) ingestionService.submitObservation(99L, pulse).data())
+                        .trackingId();
+        ingestionService.stop();
+
+        IngestionReceipt receipt = receipt(trackingId);
+        assertEquals(IngestionStatus.REJECTED, receipt.status());
+        assertEquals("Encounter with the given id does not exist", receipt.message());
+        assertEquals(1, stats().rejected());
+    }
+
+    @Test
+    @DisplayName("A batch whose transaction fails transiently is retried and stored")
+    void submitObservation_WhenWriteFailsOnce_ShouldRetryBatch() {
+        ingestionService = ingestionService(100, 2, Duration.ofSeconds(5));
+        when(encounterRepository.findPatientEncountersByIdIn(anyCollection()))
+                .thenReturn(List.of(new PatientEncounter(1L, 10L)));
+        when(observationRepository.saveAll(anyList()))
+                .thenThrow(new CannotAcquireLockException("lock wait timeout"))
+                .thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+        ingestionService.start();
+
+        List<String> trackingIds =
+                List.of(submit(pulse).trackingId(), submit(pulse).trackingId());
+        ingestionService.stop();
+
+        verify(observationRepository, times(2)).saveAll(anyList());
+        for (String trackingId : trackingIds) {
+            assertEquals(IngestionStatus.STORED, receipt(trackingId).status());
+        }
+        assertEquals(2, stats().stored());
+        assertEquals(0, stats().rejected());
+    }
+
+    @Test
+    @DisplayName("A batch that keeps failing is stored row by row and only the bad row rejected")
+    void submitObservation_WhenOneRowFails_ShouldRejectOnlyThatRow() {
+        ingestionService = ingestionService(100, 3, Duration.ofSeconds(5));
+        when(encounterRepository.findPatientEncountersByIdIn(anyCollection()))
+                .thenReturn(List.of(new PatientEncounter(1L, 10L)));
+        when(observationRepository.saveAll(anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            List<Observation> observations = invocation.getArgument(0);
+                            boolean bad =
+                                    observations.stream()
+                                            .anyMatch(row -> "999".equals(row.getValue()));
+                            if (bad) {
+                                throw new DataIntegrityViolationException("value too large");
+                            }
+                            return assignIds(observations);
+                        });
+        ingestionService.start();
+
+        String first = submit(pulse).trackingId();
+        ObservationWrapper outOfRange =
+                ObservationWrapper.builder()
+                        .code("PULSE")
+                        .value("999")
+                        .effectiveDateTime("2025-11-01 10:31:00")
+                        .build();
+        String bad = submit(outOfRange).trackingId();
+        String last = submit(pulse).trackingId();
+        ingestionService.stop();
+
+        assertEquals(IngestionStatus.STORED, receipt(first).status());
+        assertEquals(IngestionStatus.REJECTED, receipt(bad).status());
+        assertEquals(IngestionStatus.STORED, receipt(last).status());
+        assertEquals(2, stats().stored());
+        assertEquals(1, stats().rejected());
+    }
+
+    @Test
+    @DisplayName("A full queue refuses submissions instead of blocking")
+    void submitObservation_WhenQueueFull_ShouldThrottle() throws InterruptedException {
+        ingestionService = ingestionService(1, 100);
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(encounterRepository.findPatientEncountersByIdIn(anyCollection()))
+                .thenReturn(List.of(new PatientEncounter(1L, 10L)));
+        when(observationRepository.saveAll(anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            flushing.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return assignIds(invocation.getArgument(0));
+                        });
+        ingestionService.start();
+
+        ingestionService.submitObservation(10L, pulse);
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        ingestionService.submitObservation(10L, pulse);
+        IngestionUnavailableException exception =
+                assertThrows(
+                        IngestionUnavailableException.class,
+                        () -> ingestionService.submitObservation(10L, pulse));
+        assertEquals("Observation queue is full, retry later", exception.getMessage());
+        release.countDown();
+        ingestionService.stop();
+
+        IngestionQueueStats stats = stats();
+        assertEquals(2, stats.accepted());
+        assertEquals(1, stats.throttled());
+        assertEquals(2, stats.stored());
+        assertEquals(0, stats.queueDepth());
+    }
+
+    @Test
+    @DisplayName("Invalid observations are refused before they are queued")
+    void submitObservation_WhenInvalid_ShouldThrowPatientException() {
+        ingestionService = ingestionService(100, 10);
+        ingestionService.start();
+        ObservationWrapper invalid =
+                ObservationWrapper.builder()
+                        .code("PULSE")
+                        .value("72")
+                        .effectiveDateTime("01/11/2025")
+                        .build();
+        assertThrows(
+                PatientException.class, () -> ingestionService.submitObservation(10L, invalid));
+        assertEquals(0, stats().accepted());
+    }
+
+    @Test
+    @DisplayName("Submissions after shutdown are refused")
+    void submitObservation_AfterStop_ShouldBeUnavailable() {
+        ingestionService = ingestionService(100, 10);
+        ingestionService.start();
+        ingestionService.stop();
+        assertThrows(
+                IngestionUnavailableException.class,
+                () -> ingestionService.submitObservation(10L, pulse));
+    }
+
+    private ObservationIngestionServiceImpl ingestionService(int capacity, int batchSize) {
+        return ingestionService(capacity, batchSize, Duration.ofMillis(50));
+    }
+
+    private ObservationIngestionServiceImpl ingestionService(
+            int capacity, int batchSize, Duration flushInterval) {
+        return new ObservationIngestionServiceImpl(
+                encounterRepository,
+                patientRepository,
+                observationRepository,
+                new TransactionTemplate(transactionManager),
+                new ObservationRules(Validation.buildDefaultValidatorFactory().getValidator()),
+                capacity,
+                batchSize,
+                flushInterval,
+                Duration.ofSeconds(5),
+                3,
+                Duration.ofMillis(1),
+                Duration.ofMinutes(1),
+                meterRegistry);
+    }
+
+    private List<Observation> assignIds(List<Observation> observations) {
+        observations.forEach(
+                observation ->
+                        ReflectionTestUtils.setField(
+                                observation, "id", nextObservationId.incrementAndGet()));
+        return observations;
+    }
+
+    private IngestionReceipt submit(ObservationWrapper observationWrapper) {
+        return (IngestionReceipt)
+                ingestionService.submitObservation(10L, observationWrapper).data();
+    }
+
+    private IngestionReceipt receipt(String trackingId) {
+        return (IngestionReceipt) ingestionService.retrieveReceipt(trackingId).data();
+    }
+
+    private IngestionQueueStats stats() {
+        return (IngestionQueueStats) ingestionService.retrieveQueueStats().data();
+    }
+}
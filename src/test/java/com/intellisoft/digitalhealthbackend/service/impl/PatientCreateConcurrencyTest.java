@@ -0,0 +1,154 @@
+package com.intellisoft.digitalhealthbackend.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
+import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
+import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import com.intellisoft.digitalhealthbackend.models.BaseEntity;
+import com.intellisoft.digitalhealthbackend.service.PatientService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Many threads registering the same identifiers at once: each identifier must be created or
+ * restored exactly once and every other attempt rejected as a duplicate, never failed otherwise.
+ */
+@Slf4j
+@SpringBootTest(
+        // the write limit would shed part of the burst
+        properties = "patient.load-shedding.enabled=false")
+@ActiveProfiles("test")
+class PatientCreateConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final long FIRST_NEW = 70_000_000L;
+    private static final long FIRST_DELETED = 71_000_000L;
+    private static final long FIRST_SEQUENTIAL = 72_000_000L;
+    private static final int IDENTIFIERS = 50;
+
+    @Autowired private PatientService patientService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Concurrent creates of the same identifiers create or restore each exactly once")
+    void createPatient_WhenRacing_ShouldCreateOrRestoreEachIdentifierOnce() throws Exception {
+        jdbcTemplate.update(
+                "INSERT INTO \"tb_patient\"(identifier, given_name, family_name, gender,"
+                        + " \"soft_delete\") SELECT ? + \"X\", 'Deleted', 'Patient', 'MALE', TRUE"
+                        + " FROM SYSTEM_RANGE(0, ?)",
+                FIRST_DELETED,
+                IDENTIFIERS - 1);
+        List<Long> identifiers = new ArrayList<>();
+        LongStream.range(0, IDENTIFIERS).forEach(i -> identifiers.add(FIRST_NEW + i));
+        LongStream.range(0, IDENTIFIERS).forEach(i -> identifiers.add(FIRST_DELETED + i));
+
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<Long> order = new ArrayList<>(identifiers);
+            Collections.shuffle(order);
+            threads.add(
+                    callers.submit(
+                            () -> {
+                                start.await();
+                                for (Long identifier : order) {
+                                    outcomes.computeIfAbsent(
+                                                    create(identifier), key -> new AtomicInteger())
+                                            .incrementAndGet();
+                                }
+                                return null;
+                            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> thread : threads) {
+            thread.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        callers.shutdown();
+
+        int attempts = THREADS * identifiers.size();
+        double perSecond = attempts / seconds;
+        log.info(
+                "{} concurrent creates in {} s ({} per second): {}",
+                attempts,
+                String.format("%.2f", seconds),
+                Math.round(perSecond),
+                outcomes);
+        assertEquals(
+                IDENTIFIERS, count(outcomes, "Patient created successfully"), outcomes::toString);
+        assertEquals(
+                IDENTIFIERS,
+                count(outcomes, "Patient restored and updated successfully"),
+                outcomes::toString);
+        assertEquals(
+                attempts - 2 * IDENTIFIERS,
+                count(outcomes, "Patient already exists"),
+                outcomes::toString);
+        assertEquals(
+                2 * IDENTIFIERS,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM \"tb_patient\" WHERE identifier >= ? AND"
+                                + " identifier < ? AND \"soft_delete\" = FALSE",
+                        Integer.class,
+                        FIRST_NEW,
+                        FIRST_DELETED + IDENTIFIERS));
+    }
+
+    @Test
+    @DisplayName("Creates take their ids from Hibernate's pooled block, not one block each")
+    void createPatient_ShouldNotSpendAnAllocationBlockPerCreate() {
+        List<Long> ids = new ArrayList<>();
+        for (long identifier = FIRST_SEQUENTIAL; identifier < FIRST_SEQUENTIAL + 3; identifier++) {
+            ids.add(((PatientView) patientService.createPatient(wrapper(identifier)).data()).id());
+        }
+
+        // ids from the column default would put the third two whole blocks above the first
+        assertTrue(ids.get(2) - ids.get(0) < BaseEntity.ID_ALLOCATION_SIZE, ids::toString);
+    }
+
+    private String create(Long identifier) {
+        try {
+            UniversalResponse response = patientService.createPatient(wrapper(identifier));
+            return response.message();
+        } catch (PatientException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static PatientWrapper wrapper(Long identifier) {
+        return PatientWrapper.builder()
+                .identifier(identifier)
+                .givenName("Racing")
+                .familyName("Patient")
+                .gender("FEMALE")
+                .birthDate("1990-01-15")
+                .build();
+    }
+
+    private static int count(Map<String, AtomicInteger> outcomes, String message) {
+        AtomicInteger count = outcomes.get(message);
+        return count == null ? 0 : count.get();
+    }
+}
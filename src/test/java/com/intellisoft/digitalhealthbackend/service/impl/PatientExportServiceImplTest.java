@@ -0,0 +1,126 @@
+package com.intellisoft.digitalhealthbackend.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.intellisoft.digitalhealthbackend.dto.ClinicalHistoryRow;
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
+import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@ExtendWith(MockitoExtension.class)
+class PatientExportServiceImplTest {
+
+    @Mock private PatientRepository patientRepository;
+
+    @Mock private EncounterRepository encounterRepository;
+
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper =
+            JsonMapper.builder()
+                    .findAndAddModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+
+    private PatientExportServiceImpl patientExportService;
+
+    @BeforeEach
+    void setUp() {
+        patientExportService =
+                new PatientExportServiceImpl(
+                        patientRepository,
+                        encounterRepository,
+                        objectMapper,
+                        new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Export writes each encounter once followed by its observations")
+    void exportPatientHistory_ShouldWriteNdjsonLines() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 11, 1, 10, 30);
+        when(patientRepository.existsByIdAndSoftDeleteFalse(1L)).thenReturn(true);
+        when(encounterRepository.streamClinicalHistory(1L))
+                .thenReturn(
+                        Stream.of(
+                                new ClinicalHistoryRow(
+                                        10L, start, null, start.toLocalDate(), 100L, "BP-01", "120/80",
+                                        start.plusMinutes(5)),
+                                new ClinicalHistoryRow(
+                                        10L, start, null, start.toLocalDate(), 101L, "PULSE", "72",
+                                        start.plusMinutes(6)),
+                                new ClinicalHistoryRow(
+                                        11L, start.plusDays(1), null, start.toLocalDate(), null, null,
+                                        null, null)));
+
+        List<JsonNode> lines = export(1L);
+
+        assertEquals(4, lines.size());
+        assertEquals("encounter", lines.get(0).get("type").asText());
+        assertEquals(10L, lines.get(0).get("id").asLong());
+        assertEquals("observation", lines.get(1).get("type").asText());
+        assertEquals("BP-01", lines.get(1).get("code").asText());
+        assertEquals(10L, lines.get(2).get("encounterId").asLong());
+        assertEquals("encounter", lines.get(3).get("type").asText());
+        assertEquals(11L, lines.get(3).get("id").asLong());
+    }
+
+    @Test
+    @DisplayName("Export of a patient without encounters is empty")
+    void exportPatientHistory_WithoutEncounters_ShouldWriteNothing() throws Exception {
+        when(patientRepository.existsByIdAndSoftDeleteFalse(1L)).thenReturn(true);
+        when(encounterRepository.streamClinicalHistory(1L)).thenReturn(Stream.empty());
+        assertTrue(export(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Export of a missing patient fails before streaming starts")
+    void exportPatientHistory_WhenPatientMissing_ShouldThrowException() {
+        when(patientRepository.existsByIdAndSoftDeleteFalse(99L)).thenReturn(false);
+        PatientException exception =
+                assertThrows(
+                        PatientException.class,
+                        () -> patientExportService.exportPatientHistory(99L));
+        assertEquals("Patient not found", exception.getMessage());
+        verify(encounterRepository, never()).streamClinicalHistory(99L);
+    }
+
+    private List<JsonNode> export(Long patientId) throws Exception {
+        StreamingResponseBody body = patientExportService.exportPatientHistory(patientId);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        String ndjson = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(ndjson.isEmpty() || ndjson.endsWith("\n"));
+        return ndjson.lines().map(this::readTree).toList();
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new AssertionError("Invalid NDJSON line: " + line, e);
+        }
+    }
+}
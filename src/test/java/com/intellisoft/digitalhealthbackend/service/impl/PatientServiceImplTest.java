@@ -4,21 +4,30 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.intellisoft.digitalhealthbackend.dto.EncounterView;
 import com.intellisoft.digitalhealthbackend.dto.EncounterWrapper;
+import com.intellisoft.digitalhealthbackend.dto.PageCursor;
+import com.intellisoft.digitalhealthbackend.dto.ObservationView;
 import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.dto.PatientUpsert;
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
 import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
 import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.enums.BulkRowStatus;
 import com.intellisoft.digitalhealthbackend.enums.Gender;
 import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
 import com.intellisoft.digitalhealthbackend.models.Encounter;
@@ -27,24 +36,31 @@ import com.intellisoft.digitalhealthbackend.models.Patient;
 import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
 import com.intellisoft.digitalhealthbackend.repository.ObservationRepository;
 import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
-import java.text.SimpleDateFormat;
+import com.intellisoft.digitalhealthbackend.service.PatientCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -64,7 +80,11 @@ class PatientServiceImplTest {
 
     @Mock private EncounterRepository encounterRepository;
 
-    @InjectMocks private PatientServiceImpl patientServiceImpl;
+    @Mock private EntityManagerFactory entityManagerFactory;
+
+    @Mock private Cache secondLevelCache;
+
+    private PatientServiceImpl patientServiceImpl;
     private Long patientId;
     private Patient testPatient;
     private Encounter encounter;
@@ -77,6 +97,21 @@ class PatientServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        lenient().when(secondLevelCache.unwrap(Cache.class)).thenReturn(secondLevelCache);
+        patientServiceImpl =
+                new PatientServiceImpl(
+                        patientRepository,
+                        encounterRepository,
+                        observationRepository,
+                        new PatientCache(
+                                patientRepository,
+                                entityManagerFactory,
+                                new SimpleMeterRegistry(),
+                                100,
+                                Duration.ofMinutes(5)),
+                        new ObservationRules(
+                                Validation.buildDefaultValidatorFactory().getValidator()));
         patientId = 1L;
         testPatient =
                 Patient.builder()
@@ -85,7 +120,7 @@ class PatientServiceImplTest {
                         .givenName("John")
                         .gender(Gender.MALE)
                         .encounters(new ArrayList<>())
-                        .birthDate(new Date())
+                        .birthDate(LocalDate.of(1990, 1, 15))
                         .build();
         ReflectionTestUtils.setField(testPatient, "id", 1L);
         ReflectionTestUtils.setField(testPatient, "softDelete", false);
@@ -125,12 +160,16 @@ class PatientServiceImplTest {
                         .givenName("John")
                         .birthDate("1994-01-01")
                         .build();
-        when(patientRepository.findByIdentifier(34477307L)).thenReturn(Optional.empty());
-        when(patientRepository.save(any(Patient.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(patientRepository.upsert(any(Patient.class)))
+                .thenAnswer(
+                        invocation ->
+                                new PatientUpsert(
+                                        BulkRowStatus.CREATED,
+                                        PatientView.from(invocation.getArgument(0))));
         UniversalResponse response = patientServiceImpl.createPatient(patientWrapper);
-        verify(patientRepository, times(1)).findByIdentifier(34477307L);
-        verify(patientRepository, times(1)).save(any(Patient.class));
+        verify(patientRepository, times(1))
+                .upsert(argThat(patient -> patient.getIdentifier().equals(34477307L)));
+        verify(patientRepository, never()).save(any(Patient.class));
         assertEquals(200, response.status());
         assertEquals("Patient created successfully", response.message());
         assertNotNull(response.data());
@@ -178,7 +217,8 @@ class PatientServiceImplTest {
                 .thenReturn(Optional.of(testPatient));
         UniversalResponse response = patientServiceImpl.deletePatient(patientId);
         verify(patientRepository, times(1)).findByIdAndSoftDeleteFalse(patientId);
-        verify(patientRepository, times(1)).save(any(Patient.class));
+        verify(patientRepository, never()).save(any(Patient.class));
+        assertTrue(testPatient.getSoftDelete());
         assertEquals(200, response.status());
         assertEquals("Patient deleted successfully", response.message());
     }
@@ -204,7 +244,6 @@ class PatientServiceImplTest {
     @DisplayName("Add patient encounter")
     void addPatientEncounters() {
         Long patientId = 1L;
-        Patient testPatient = new Patient();
         EncounterWrapper encounterWrapper =
                 EncounterWrapper.builder()
                         .start("2025-11-01 10:30:15")
@@ -213,6 +252,7 @@ class PatientServiceImplTest {
 
         when(patientRepository.findByIdAndSoftDeleteFalse(patientId))
                 .thenReturn(Optional.of(testPatient));
+        when(patientRepository.getReferenceById(patientId)).thenReturn(testPatient);
         when(encounterRepository.save(any(Encounter.class)))
                 .thenAnswer(
                         invocation -> {
@@ -226,9 +266,10 @@ class PatientServiceImplTest {
         assertEquals("Encounter added successfully", response.message());
         assertEquals(HttpStatus.OK.value(), response.status());
         assertNotNull(response.data());
-        assertInstanceOf(Encounter.class, response.data());
-        assertEquals(1L, ((Encounter) response.data()).getId());
-        verify(patientRepository).save(any(Patient.class));
+        assertInstanceOf(EncounterView.class, response.data());
+        assertEquals(1L, ((EncounterView) response.data()).id());
+        assertNull(((EncounterView) response.data()).observations());
+        verify(patientRepository, never()).save(any(Patient.class));
         verify(encounterRepository).save(any(Encounter.class));
     }
 
@@ -256,15 +297,16 @@ class PatientServiceImplTest {
                 createEncounter(1L, testPatient, LocalDateTime.now().minusDays(1));
         Encounter secondEncounter =
                 createEncounter(2L, testPatient, LocalDateTime.now().minusDays(3));
-        List<Encounter> encounters = Arrays.asList(firstEncounter, secondEncounter);
-        Page<Encounter> encounterPage = new PageImpl<>(encounters, PageRequest.of(page, size), 2);
+        Page<Long> encounterIdPage =
+                new PageImpl<>(List.of(1L, 2L), PageRequest.of(page, size), 2);
         when(patientRepository
                         .findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(
                                 family, givenName, identifier, formatDate(birthDate)))
                 .thenReturn(Optional.of(testPatient));
-        when(encounterRepository.findByPatientIdAndSoftDeleteFalse(
-                        patientId, PageRequest.of(page, size)))
-                .thenReturn(encounterPage);
+        when(encounterRepository.findIdPageByPatientId(patientId, PageRequest.of(page, size)))
+                .thenReturn(encounterIdPage);
+        when(encounterRepository.findAllWithObservationsByIdIn(List.of(1L, 2L)))
+                .thenReturn(Arrays.asList(secondEncounter, firstEncounter));
         UniversalResponse response =
                 patientServiceImpl.retrievePatientEncountersAndObservation(
                         family, givenName, identifier, birthDate, page, size);
@@ -272,7 +314,11 @@ class PatientServiceImplTest {
         assertEquals("Patient encounters and Observations", response.message());
         assertNotNull(response.data());
         Map<String, Object> responseData = (Map<String, Object>) response.data();
-        assertEquals(2, ((List<?>) responseData.get("encounters")).size());
+        List<EncounterView> returnedEncounters =
+                (List<EncounterView>) responseData.get("encounters");
+        assertEquals(2, returnedEncounters.size());
+        assertEquals(firstEncounter.getId(), returnedEncounters.get(0).id());
+        assertEquals(secondEncounter.getId(), returnedEncounters.get(1).id());
         assertEquals(0, responseData.get("currentPage"));
         assertEquals(1, responseData.get("totalPages"));
         assertEquals(2L, responseData.get("totalEncounters"));
@@ -282,7 +328,86 @@ class PatientServiceImplTest {
                 .findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(
                         family, givenName, identifier, formatDate(birthDate));
         verify(encounterRepository, times(1))
-                .findByPatientIdAndSoftDeleteFalse(patientId, PageRequest.of(page, size));
+                .findIdPageByPatientId(patientId, PageRequest.of(page, size));
+        verify(encounterRepository, times(1)).findAllWithObservationsByIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should page encounters by cursor and return the cursor of the last row")
+    void scrollPatientEncountersAndObservation_WithMoreRows_ShouldReturnNextCursor() {
+        LocalDateTime start = LocalDateTime.of(2025, 10, 5, 9, 0);
+        Encounter firstEncounter = createEncounter(7L, testPatient, start);
+        Encounter secondEncounter = createEncounter(6L, testPatient, start.minusDays(1));
+        PageCursor cursor = new PageCursor(start.plusDays(1), 8L);
+        when(patientRepository
+                        .findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(
+                                family, givenName, identifier, formatDate(birthDate)))
+                .thenReturn(Optional.of(testPatient));
+        when(encounterRepository.findIdsByPatientIdAfter(
+                        patientId, cursor.timestamp(), cursor.id(), Limit.of(3)))
+                .thenReturn(List.of(7L, 6L, 5L));
+        when(encounterRepository.findAllWithObservationsByIdIn(List.of(7L, 6L)))
+                .thenReturn(Arrays.asList(secondEncounter, firstEncounter));
+        UniversalResponse response =
+                patientServiceImpl.scrollPatientEncountersAndObservation(
+                        family, givenName, identifier, birthDate, cursor.encode(), 2);
+        Map<String, Object> responseData = (Map<String, Object>) response.data();
+        assertEquals(
+                List.of(
+                        EncounterView.withObservations(firstEncounter),
+                        EncounterView.withObservations(secondEncounter)),
+                responseData.get("encounters"));
+        assertEquals(true, responseData.get("hasNext"));
+        assertEquals(
+                new PageCursor(start.minusDays(1), 6L),
+                PageCursor.decode((String) responseData.get("nextCursor")));
+        assertFalse(responseData.containsKey("totalPages"));
+        verify(encounterRepository, never()).countByPatientIdAndSoftDeleteFalse(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return the last observation page without a next cursor")
+    void scrollPatientObservations_LastPage_ShouldNotReturnNextCursor() {
+        Observation observation =
+                Observation.builder()
+                        .code("PULSE")
+                        .value("72")
+                        .effectiveDateTime(LocalDateTime.of(2025, 10, 5, 9, 0))
+                        .build();
+        when(patientRepository.findByIdAndSoftDeleteFalse(patientId))
+                .thenReturn(Optional.of(testPatient));
+        when(observationRepository.findFirstByPatientId(patientId, Limit.of(11)))
+                .thenReturn(List.of(observation));
+        UniversalResponse response = patientServiceImpl.scrollPatientObservations(patientId, "", 10);
+        Map<String, Object> responseData = (Map<String, Object>) response.data();
+        assertEquals(List.of(ObservationView.from(observation)), responseData.get("observations"));
+        assertEquals(false, responseData.get("hasNext"));
+        assertEquals(null, responseData.get("nextCursor"));
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that cannot be decoded")
+    void scrollPatientObservations_InvalidCursor_ShouldThrowException() {
+        when(patientRepository.findByIdAndSoftDeleteFalse(patientId))
+                .thenReturn(Optional.of(testPatient));
+        PatientException exception =
+                assertThrows(
+                        PatientException.class,
+                        () -> patientServiceImpl.scrollPatientObservations(patientId, "%%", 10));
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject a page size above the maximum before reading anything")
+    void scrollPatientObservations_OversizedPage_ShouldThrowException() {
+        PatientException exception =
+                assertThrows(
+                        PatientException.class,
+                        () ->
+                                patientServiceImpl.scrollPatientObservations(
+                                        patientId, null, Integer.MAX_VALUE));
+        assertEquals("Page size must be between 1 and 100", exception.getMessage());
+        verifyNoInteractions(patientRepository, observationRepository);
     }
 
     private Encounter createEncounter(Long id, Patient patient, LocalDateTime startTime) {
@@ -290,7 +415,7 @@ class PatientServiceImplTest {
                 Encounter.builder()
                         .patient(patient)
                         .start(startTime)
-                        .encounterDate(new Date())
+                        .encounterDate(startTime.toLocalDate())
                         .observations(new ArrayList<>())
                         .build();
 
@@ -299,13 +424,8 @@ class PatientServiceImplTest {
         return encounter;
     }
 
-    public Date formatDate(String date) {
-        try {
-            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-            return formatter.parse(date);
-        } catch (Exception exception) {
-            throw new PatientException(exception.getMessage());
-        }
+    public LocalDate formatDate(String date) {
+        return LocalDate.parse(date);
     }
 
     @Test
@@ -315,18 +435,18 @@ class PatientServiceImplTest {
         Encounter encounter2 = createEncounter(2L, testPatient, LocalDateTime.now().minusDays(2));
         Encounter encounter3 = createEncounter(3L, testPatient, LocalDateTime.now().minusDays(3));
         List<Encounter> encounters = Arrays.asList(encounter1, encounter2, encounter3);
-        testPatient.setEncounters(encounters);
         when(patientRepository.findByIdAndSoftDeleteFalse(patientId))
                 .thenReturn(Optional.of(testPatient));
+        when(encounterRepository.findByPatientIdOrderById(patientId)).thenReturn(encounters);
         UniversalResponse response = patientServiceImpl.viewPatientEncounters(patientId);
         assertEquals(HttpStatus.OK.value(), response.status());
         assertEquals("Patient encounters retrieved successfully", response.message());
         assertNotNull(response.data());
-        List<Encounter> returnedEncounters = (List<Encounter>) response.data();
+        List<EncounterView> returnedEncounters = (List<EncounterView>) response.data();
         assertEquals(3, returnedEncounters.size());
-        assertEquals(encounter1.getId(), returnedEncounters.get(0).getId());
-        assertEquals(encounter2.getId(), returnedEncounters.get(1).getId());
-        assertEquals(encounter3.getId(), returnedEncounters.get(2).getId());
+        assertEquals(encounter1.getId(), returnedEncounters.get(0).id());
+        assertEquals(encounter2.getId(), returnedEncounters.get(1).id());
+        assertEquals(encounter3.getId(), returnedEncounters.get(2).id());
         verify(patientRepository, times(1)).findByIdAndSoftDeleteFalse(patientId);
     }
 
@@ -363,39 +483,36 @@ class PatientServiceImplTest {
 
         when(patientRepository.findByIdAndSoftDeleteFalse(patientId))
                 .thenReturn(Optional.of(testPatient));
-        when(observationRepository.findObservationByPatientAndSoftDeleteFalse(
-                        testPatient, pageable))
+        when(observationRepository.findByPatientIdAndSoftDeleteFalse(patientId, pageable))
                 .thenReturn(observationsPage);
         UniversalResponse response = patientServiceImpl.viewPatientObservations(patientId);
         assertEquals(HttpStatus.OK.value(), response.status());
         assertEquals("Patient observations retrieved successfully", response.message());
         assertNotNull(response.data());
-        List<Observation> returnedObservations = (List<Observation>) response.data();
+        List<ObservationView> returnedObservations = (List<ObservationView>) response.data();
         assertEquals(3, returnedObservations.size());
     }
 
     @Test
     @DisplayName("add observations to an existing encounter")
     void addEncounterObservationWhenEncounterExists() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(1L))
+                .thenReturn(Optional.of(1L));
         when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
         UniversalResponse response =
                 patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
         assertNotNull(response);
         assertEquals("Encounter added successfully", response.message());
         assertEquals(HttpStatus.OK.value(), response.status());
-        assertEquals(encounter, response.data());
-        assertEquals(1, encounter.getObservations().size());
-        verify(encounterRepository).findByIdAndSoftDeleteFalse(1L);
+        assertEquals(ObservationView.from(testObservation), response.data());
+        verify(encounterRepository).findPatientIdByIdAndSoftDeleteFalse(1L);
         verify(observationRepository).save(any(Observation.class));
-        verify(encounterRepository).save(encounter);
     }
 
     @Test
     @DisplayName("throw exception when adding an observation to a  non existing encounter")
     void addEncounterObservationWhenEncounterNotFound_ShouldThrowPatientException() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(anyLong()))
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(anyLong()))
                 .thenReturn(Optional.empty());
         PatientException exception =
                 assertThrows(
@@ -405,7 +522,7 @@ class PatientServiceImplTest {
                                     999L, testObservationWrapper);
                         });
         assertEquals("Encounter with the given id does not exist", exception.getMessage());
-        verify(encounterRepository).findByIdAndSoftDeleteFalse(999L);
+        verify(encounterRepository).findPatientIdByIdAndSoftDeleteFalse(999L);
         verify(observationRepository, never()).save(any());
         verify(encounterRepository, never()).save(any());
     }
@@ -431,41 +548,27 @@ class PatientServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should initialize list when encounter observation is null")
-    void addEncounterObservation_WhenObservationsListIsNull_ShouldInitializeList() {
-        encounter.setObservations(null);
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
-        when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
-        UniversalResponse response =
-                patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
-        assertNotNull(response);
-        assertNotNull(encounter.getObservations());
-        assertEquals(1, encounter.getObservations().size());
-        verify(encounterRepository).save(encounter);
-    }
-
-    @Test
-    @DisplayName("Should append an observation to an existing observation list")
-    void addEncounterObservation_WhenObservationsListExists_ShouldAppendToExistingList() {
-        Observation existingObservation =
-                Observation.builder().code("TEMP-001").value("98.6").build();
-        encounter.getObservations().add(existingObservation);
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
+    @DisplayName("Should insert the observation without loading or saving the encounter")
+    void addEncounterObservation_ShouldNotTouchEncounterObservations() {
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(1L))
+                .thenReturn(Optional.of(1L));
         when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
         patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
-        assertEquals(2, encounter.getObservations().size());
-        assertTrue(encounter.getObservations().contains(existingObservation));
+        assertTrue(encounter.getObservations().isEmpty());
+        verify(encounterRepository, never()).findByIdAndSoftDeleteFalse(anyLong());
+        verify(encounterRepository, never()).save(any());
+        verify(patientRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Should update observation properties correctly")
     void addEncounterObservation_ShouldSetCorrectObservationProperties() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(1L))
+                .thenReturn(Optional.of(1L));
+        when(patientRepository.getReferenceById(1L)).thenReturn(testPatient);
+        when(encounterRepository.getReferenceById(1L)).thenReturn(encounter);
         when(observationRepository.save(any(Observation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
         patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
         verify(observationRepository)
                 .save(
@@ -474,30 +577,48 @@ class PatientServiceImplTest {
                                         observation.getCode().equals("BP-001")
                                                 && observation.getValue().equals("120/80")
                                                 && observation.getPatient().equals(testPatient)
+                                                && observation.getEncounter().equals(encounter)
                                                 && observation.getEffectiveDateTime() != null));
     }
 
     @Test
     @DisplayName("Should format date and time when adding observation ")
     void addEncounterObservation_ShouldCallFormatDateTime() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(1L))
+                .thenReturn(Optional.of(1L));
         when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
         patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
         verify(observationRepository)
                 .save(argThat(observation -> observation.getEffectiveDateTime() != null));
     }
 
     @Test
-    @DisplayName("Should save observation before adding to an encounter")
-    void addEncounterObservation_ShouldSaveObservationBeforeAddingToEncounter() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
-        when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
-        patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
-        var inOrder = inOrder(observationRepository, encounterRepository);
-        inOrder.verify(observationRepository).save(any(Observation.class));
-        inOrder.verify(encounterRepository).save(encounter);
+    @DisplayName("Should report every invalid observation and write nothing")
+    void addEncounterObservations_WhenRowsInvalid_ShouldRejectBatch() {
+        List<ObservationWrapper> observations =
+                List.of(
+                        testObservationWrapper,
+                        ObservationWrapper.builder()
+                                .code("BP-001")
+                                .value(" ")
+                                .effectiveDateTime("2025-11-01 10:30:00")
+                                .build(),
+                        ObservationWrapper.builder()
+                                .code("BP-001")
+                                .value("120/80")
+                                .effectiveDateTime("2025-11-01")
+                                .build());
+        PatientException exception =
+                assertThrows(
+                        PatientException.class,
+                        () -> patientServiceImpl.addEncounterObservations(1L, observations));
+        assertTrue(
+                exception
+                        .getMessage()
+                        .startsWith("observation[1]: Observation value is mandatory"));
+        assertTrue(exception.getMessage().contains("; observation[2]: Invalid date time format"));
+        verify(encounterRepository, never()).findPatientIdByIdAndSoftDeleteFalse(anyLong());
+        verify(observationRepository, never()).saveAll(any());
     }
 
     @Test
@@ -520,24 +641,66 @@ class PatientServiceImplTest {
                         .birthDate("1990-01-01")
                         .build();
 
-        Patient softDeletedPatient =
-                Patient.builder()
+        PatientView restored =
+                new PatientView(
+                        1L,
+                        12345678L,
+                        "Patient",
+                        "Restored",
+                        Gender.FEMALE,
+                        LocalDate.of(1990, 1, 1),
+                        1L,
+                        Instant.now());
+        when(patientRepository.upsert(any(Patient.class)))
+                .thenReturn(new PatientUpsert(BulkRowStatus.RESTORED, restored));
+
+        UniversalResponse response = patientServiceImpl.createPatient(patientWrapper);
+        assertEquals(HttpStatus.OK.value(), response.status());
+        assertEquals("Patient restored and updated successfully", response.message());
+        assertEquals(restored, response.data());
+        verify(secondLevelCache).evictEntityData(Patient.class, 1L);
+    }
+
+    @Test
+    @DisplayName("Should reject creating a patient whose identifier is active")
+    void createPatient_WhenActive_ShouldThrowException() {
+        PatientWrapper patientWrapper =
+                PatientWrapper.builder()
                         .identifier(12345678L)
-                        .gender(Gender.MALE)
-                        .familyName("Old")
+                        .gender("FEMALE")
+                        .familyName("Duplicate")
                         .givenName("Patient")
+                        .birthDate("1990-01-01")
                         .build();
-        ReflectionTestUtils.setField(softDeletedPatient, "id", 1L);
-        ReflectionTestUtils.setField(softDeletedPatient, "softDelete", true);
+        when(patientRepository.upsert(any(Patient.class))).thenReturn(PatientUpsert.rejected());
 
-        when(patientRepository.findByIdentifier(12345678L))
-                .thenReturn(Optional.of(softDeletedPatient));
-        when(patientRepository.save(any(Patient.class))).thenReturn(softDeletedPatient);
+        PatientException exception =
+                assertThrows(
+                        PatientException.class,
+                        () -> patientServiceImpl.createPatient(patientWrapper));
+        assertEquals("Patient already exists", exception.getMessage());
+        verifyNoInteractions(entityManagerFactory);
+    }
 
-        UniversalResponse response = patientServiceImpl.createPatient(patientWrapper);
-        assertEquals(HttpStatus.OK.value(), response.status());
-        assertEquals("Patient restored and updated successfully", response.message());
-        assertFalse(softDeletedPatient.getSoftDelete());
+    @Test
+    @DisplayName("Should pass database failures of the upsert through unwrapped")
+    void createPatient_WhenDatabaseFails_ShouldRethrowDataAccessException() {
+        PatientWrapper patientWrapper =
+                PatientWrapper.builder()
+                        .identifier(12345678L)
+                        .gender("FEMALE")
+                        .familyName("Timeout")
+                        .givenName("Patient")
+                        .birthDate("1990-01-01")
+                        .build();
+        CannotAcquireLockException failure = new CannotAcquireLockException("lock wait timeout");
+        when(patientRepository.upsert(any(Patient.class))).thenThrow(failure);
+
+        assertSame(
+                failure,
+                assertThrows(
+                        CannotAcquireLockException.class,
+                        () -> patientServiceImpl.createPatient(patientWrapper)));
     }
 
     @Test
@@ -588,7 +751,6 @@ class PatientServiceImplTest {
 
         when(encounterRepository.findByIdAndSoftDeleteFalse(1L))
                 .thenReturn(Optional.of(openEncounter));
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(openEncounter);
 
         String endTime =
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
@@ -597,36 +759,7 @@ class PatientServiceImplTest {
         assertEquals(HttpStatus.OK.value(), response.status());
         assertEquals("Encounter ended successfully", response.message());
         assertNotNull(response.data());
-        verify(encounterRepository).save(any(Encounter.class));
-    }
-
-    @Test
-    @DisplayName("Should throw exception for null date format")
-    void formatDate_WhenNull_ShouldThrowException() {
-        assertThrows(
-                PatientException.class,
-                () ->
-                        ReflectionTestUtils.invokeMethod(
-                                patientServiceImpl, "formatDate", (String) null));
-    }
-
-    @Test
-    @DisplayName("Should throw exception for invalid date format")
-    void formatDate_WhenInvalidFormat_ShouldThrowException() {
-        assertThrows(
-                PatientException.class,
-                () ->
-                        ReflectionTestUtils.invokeMethod(
-                                patientServiceImpl, "formatDate", "invalid-date"));
-    }
-
-    @Test
-    @DisplayName("Should throw exception for invalid datetime format")
-    void formatDateTime_WhenInvalidFormat_ShouldThrowException() {
-        assertThrows(
-                PatientException.class,
-                () ->
-                        ReflectionTestUtils.invokeMethod(
-                                patientServiceImpl, "formatDateTime", "invalid-datetime"));
+        assertNotNull(openEncounter.getEnd());
+        verify(encounterRepository, never()).save(any(Encounter.class));
     }
 }
@@ -4,21 +4,27 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
-import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.intellisoft.digitalhealthbackend.dto.EncounterView;
 import com.intellisoft.digitalhealthbackend.dto.EncounterWrapper;
+import com.intellisoft.digitalhealthbackend.dto.ObservationView;
 import com.intellisoft.digitalhealthbackend.dto.ObservationWrapper;
+import com.intellisoft.digitalhealthbackend.dto.PatientUpsert;
+import com.intellisoft.digitalhealthbackend.dto.PatientView;
 import com.intellisoft.digitalhealthbackend.dto.PatientWrapper;
 import com.intellisoft.digitalhealthbackend.dto.UniversalResponse;
+import com.intellisoft.digitalhealthbackend.enums.BulkRowStatus;
 import com.intellisoft.digitalhealthbackend.enums.Gender;
 import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
 import com.intellisoft.digitalhealthbackend.models.Encounter;
@@ -27,22 +33,27 @@ import com.intellisoft.digitalhealthbackend.models.Patient;
 import com.intellisoft.digitalhealthbackend.repository.EncounterRepository;
 import com.intellisoft.digitalhealthbackend.repository.ObservationRepository;
 import com.intellisoft.digitalhealthbackend.repository.PatientRepository;
-import java.text.SimpleDateFormat;
+import com.intellisoft.digitalhealthbackend.service.PatientCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -64,7 +75,11 @@ class PatientServiceTest {
 
     @Mock private EncounterRepository encounterRepository;
 
-    @InjectMocks private PatientServiceImpl patientServiceImpl;
+    @Mock private EntityManagerFactory entityManagerFactory;
+
+    @Mock private Cache secondLevelCache;
+
+    private PatientServiceImpl patientServiceImpl;
     private Long patientId;
     private Patient testPatient;
     private Encounter encounter;
@@ -77,6 +92,21 @@ class PatientServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        lenient().when(secondLevelCache.unwrap(Cache.class)).thenReturn(secondLevelCache);
+        patientServiceImpl =
+                new PatientServiceImpl(
+                        patientRepository,
+                        encounterRepository,
+                        observationRepository,
+                        new PatientCache(
+                                patientRepository,
+                                entityManagerFactory,
+                                new SimpleMeterRegistry(),
+                                100,
+                                Duration.ofMinutes(5)),
+                        new ObservationRules(
+                                Validation.buildDefaultValidatorFactory().getValidator()));
         patientId = 1L;
         testPatient =
                 Patient.builder()
@@ -85,7 +115,7 @@ class PatientServiceTest {
                         .givenName("John")
                         .gender(Gender.MALE)
                         .encounters(new ArrayList<>())
-                        .birthDate(new Date())
+                        .birthDate(LocalDate.of(1990, 1, 15))
                         .build();
         ReflectionTestUtils.setField(testPatient, "id", 1L);
         ReflectionTestUtils.setField(testPatient, "softDelete", false);
@@ -125,12 +155,16 @@ class PatientServiceTest {
                         .givenName("John")
                         .birthDate("1994-01-01")
                         .build();
-        when(patientRepository.findByIdentifier(34477307L)).thenReturn(Optional.empty());
-        when(patientRepository.save(any(Patient.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(patientRepository.upsert(any(Patient.class)))
+                .thenAnswer(
+                        invocation ->
+                                new PatientUpsert(
+                                        BulkRowStatus.CREATED,
+                                        PatientView.from(invocation.getArgument(0))));
         UniversalResponse response = patientServiceImpl.createPatient(patientWrapper);
-        verify(patientRepository, times(1)).findByIdentifier(34477307L);
-        verify(patientRepository, times(1)).save(any(Patient.class));
+        verify(patientRepository, times(1))
+                .upsert(argThat(patient -> patient.getIdentifier().equals(34477307L)));
+        verify(patientRepository, never()).save(any(Patient.class));
         assertEquals(200, response.status());
         assertEquals("Patient created successfully", response.message());
         assertNotNull(response.data());
@@ -178,7 +212,8 @@ class PatientServiceTest {
                 .thenReturn(Optional.of(testPatient));
         UniversalResponse response = patientServiceImpl.deletePatient(patientId);
         verify(patientRepository, times(1)).findByIdAndSoftDeleteFalse(patientId);
-        verify(patientRepository, times(1)).save(any(Patient.class));
+        verify(patientRepository, never()).save(any(Patient.class));
+        assertTrue(testPatient.getSoftDelete());
         assertEquals(200, response.status());
         assertEquals("Patient deleted successfully", response.message());
     }
@@ -204,7 +239,6 @@ class PatientServiceTest {
     @DisplayName("Add patient encounter")
     void addPatientEncounters() {
         Long patientId = 1L;
-        Patient testPatient = new Patient();
         EncounterWrapper encounterWrapper =
                 EncounterWrapper.builder()
                         .start("2025-11-01 10:30:15")
@@ -213,6 +247,7 @@ class PatientServiceTest {
 
         when(patientRepository.findByIdAndSoftDeleteFalse(patientId))
                 .thenReturn(Optional.of(testPatient));
+        when(patientRepository.getReferenceById(patientId)).thenReturn(testPatient);
         when(encounterRepository.save(any(Encounter.class)))
                 .thenAnswer(
                         invocation -> {
@@ -226,9 +261,10 @@ class PatientServiceTest {
         assertEquals("Encounter added successfully", response.message());
         assertEquals(HttpStatus.OK.value(), response.status());
         assertNotNull(response.data());
-        assertInstanceOf(Encounter.class, response.data());
-        assertEquals(1L, ((Encounter) response.data()).getId());
-        verify(patientRepository).save(any(Patient.class));
+        assertInstanceOf(EncounterView.class, response.data());
+        assertEquals(1L, ((EncounterView) response.data()).id());
+        assertNull(((EncounterView) response.data()).observations());
+        verify(patientRepository, never()).save(any(Patient.class));
         verify(encounterRepository).save(any(Encounter.class));
     }
 
@@ -256,15 +292,16 @@ class PatientServiceTest {
                 createEncounter(1L, testPatient, LocalDateTime.now().minusDays(1));
         Encounter secondEncounter =
                 createEncounter(2L, testPatient, LocalDateTime.now().minusDays(3));
-        List<Encounter> encounters = Arrays.asList(firstEncounter, secondEncounter);
-        Page<Encounter> encounterPage = new PageImpl<>(encounters, PageRequest.of(page, size), 2);
+        Page<Long> encounterIdPage =
+                new PageImpl<>(List.of(1L, 2L), PageRequest.of(page, size), 2);
         when(patientRepository
                         .findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(
                                 family, givenName, identifier, formatDate(birthDate)))
                 .thenReturn(Optional.of(testPatient));
-        when(encounterRepository.findByPatientIdAndSoftDeleteFalse(
-                        patientId, PageRequest.of(page, size)))
-                .thenReturn(encounterPage);
+        when(encounterRepository.findIdPageByPatientId(patientId, PageRequest.of(page, size)))
+                .thenReturn(encounterIdPage);
+        when(encounterRepository.findAllWithObservationsByIdIn(List.of(1L, 2L)))
+                .thenReturn(Arrays.asList(secondEncounter, firstEncounter));
         UniversalResponse response =
                 patientServiceImpl.retrievePatientEncountersAndObservation(
                         family, givenName, identifier, birthDate, page, size);
@@ -272,7 +309,11 @@ class PatientServiceTest {
         assertEquals("Patient encounters and Observations", response.message());
         assertNotNull(response.data());
         Map<String, Object> responseData = (Map<String, Object>) response.data();
-        assertEquals(2, ((List<?>) responseData.get("encounters")).size());
+        List<EncounterView> returnedEncounters =
+                (List<EncounterView>) responseData.get("encounters");
+        assertEquals(2, returnedEncounters.size());
+        assertEquals(firstEncounter.getId(), returnedEncounters.get(0).id());
+        assertEquals(secondEncounter.getId(), returnedEncounters.get(1).id());
         assertEquals(0, responseData.get("currentPage"));
         assertEquals(1, responseData.get("totalPages"));
         assertEquals(2L, responseData.get("totalEncounters"));
@@ -282,7 +323,8 @@ class PatientServiceTest {
                 .findPatientByFamilyNameAndGivenNameAndIdentifierAndBirthDateAndSoftDeleteFalse(
                         family, givenName, identifier, formatDate(birthDate));
         verify(encounterRepository, times(1))
-                .findByPatientIdAndSoftDeleteFalse(patientId, PageRequest.of(page, size));
+                .findIdPageByPatientId(patientId, PageRequest.of(page, size));
+        verify(encounterRepository, times(1)).findAllWithObservationsByIdIn(List.of(1L, 2L));
     }
 
     private Encounter createEncounter(Long id, Patient patient, LocalDateTime startTime) {
@@ -290,7 +332,7 @@ class PatientServiceTest {
                 Encounter.builder()
                         .patient(patient)
                         .start(startTime)
-                        .encounterDate(new Date())
+                        .encounterDate(startTime.toLocalDate())
                         .observations(new ArrayList<>())
                         .build();
 
@@ -299,13 +341,8 @@ class PatientServiceTest {
         return encounter;
     }
 
-    public Date formatDate(String date) {
-        try {
-            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-            return formatter.parse(date);
-        } catch (Exception exception) {
-            throw new PatientException(exception.getMessage());
-        }
+    public LocalDate formatDate(String date) {
+        return LocalDate.parse(date);
     }
 
     @Test
@@ -315,18 +352,18 @@ class PatientServiceTest {
         Encounter encounter2 = createEncounter(2L, testPatient, LocalDateTime.now().minusDays(2));
         Encounter encounter3 = createEncounter(3L, testPatient, LocalDateTime.now().minusDays(3));
         List<Encounter> encounters = Arrays.asList(encounter1, encounter2, encounter3);
-        testPatient.setEncounters(encounters);
         when(patientRepository.findByIdAndSoftDeleteFalse(patientId))
                 .thenReturn(Optional.of(testPatient));
+        when(encounterRepository.findByPatientIdOrderById(patientId)).thenReturn(encounters);
         UniversalResponse response = patientServiceImpl.viewPatientEncounters(patientId);
         assertEquals(HttpStatus.OK.value(), response.status());
         assertEquals("Patient encounters retrieved successfully", response.message());
         assertNotNull(response.data());
-        List<Encounter> returnedEncounters = (List<Encounter>) response.data();
+        List<EncounterView> returnedEncounters = (List<EncounterView>) response.data();
         assertEquals(3, returnedEncounters.size());
-        assertEquals(encounter1.getId(), returnedEncounters.get(0).getId());
-        assertEquals(encounter2.getId(), returnedEncounters.get(1).getId());
-        assertEquals(encounter3.getId(), returnedEncounters.get(2).getId());
+        assertEquals(encounter1.getId(), returnedEncounters.get(0).id());
+        assertEquals(encounter2.getId(), returnedEncounters.get(1).id());
+        assertEquals(encounter3.getId(), returnedEncounters.get(2).id());
         verify(patientRepository, times(1)).findByIdAndSoftDeleteFalse(patientId);
     }
 
@@ -363,39 +400,36 @@ class PatientServiceTest {
 
         when(patientRepository.findByIdAndSoftDeleteFalse(patientId))
                 .thenReturn(Optional.of(testPatient));
-        when(observationRepository.findObservationByPatientAndSoftDeleteFalse(
-                        testPatient, pageable))
+        when(observationRepository.findByPatientIdAndSoftDeleteFalse(patientId, pageable))
                 .thenReturn(observationsPage);
         UniversalResponse response = patientServiceImpl.viewPatientObservations(patientId);
         assertEquals(HttpStatus.OK.value(), response.status());
         assertEquals("Patient observations retrieved successfully", response.message());
         assertNotNull(response.data());
-        List<Observation> returnedObservations = (List<Observation>) response.data();
+        List<ObservationView> returnedObservations = (List<ObservationView>) response.data();
         assertEquals(3, returnedObservations.size());
     }
 
     @Test
     @DisplayName("add observations to an existing encounter")
     void addEncounterObservationWhenEncounterExists() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(1L))
+                .thenReturn(Optional.of(1L));
         when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
         UniversalResponse response =
                 patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
         assertNotNull(response);
         assertEquals("Encounter added successfully", response.message());
         assertEquals(HttpStatus.OK.value(), response.status());
-        assertEquals(encounter, response.data());
-        assertEquals(1, encounter.getObservations().size());
-        verify(encounterRepository).findByIdAndSoftDeleteFalse(1L);
+        assertEquals(ObservationView.from(testObservation), response.data());
+        verify(encounterRepository).findPatientIdByIdAndSoftDeleteFalse(1L);
         verify(observationRepository).save(any(Observation.class));
-        verify(encounterRepository).save(encounter);
     }
 
     @Test
     @DisplayName("throw exception when adding an observation to a  non existing encounter")
     void addEncounterObservationWhenEncounterNotFound_ShouldThrowPatientException() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(anyLong()))
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(anyLong()))
                 .thenReturn(Optional.empty());
         PatientException exception =
                 assertThrows(
@@ -405,7 +439,7 @@ class PatientServiceTest {
                                     999L, testObservationWrapper);
                         });
         assertEquals("Encounter with the given id does not exist", exception.getMessage());
-        verify(encounterRepository).findByIdAndSoftDeleteFalse(999L);
+        verify(encounterRepository).findPatientIdByIdAndSoftDeleteFalse(999L);
         verify(observationRepository, never()).save(any());
         verify(encounterRepository, never()).save(any());
     }
@@ -431,41 +465,27 @@ class PatientServiceTest {
     }
 
     @Test
-    @DisplayName("Should initialize list when encounter observation is null")
-    void addEncounterObservation_WhenObservationsListIsNull_ShouldInitializeList() {
-        encounter.setObservations(null);
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
-        when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
-        UniversalResponse response =
-                patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
-        assertNotNull(response);
-        assertNotNull(encounter.getObservations());
-        assertEquals(1, encounter.getObservations().size());
-        verify(encounterRepository).save(encounter);
-    }
-
-    @Test
-    @DisplayName("Should append an observation to an existing observation list")
-    void addEncounterObservation_WhenObservationsListExists_ShouldAppendToExistingList() {
-        Observation existingObservation =
-                Observation.builder().code("TEMP-001").value("98.6").build();
-        encounter.getObservations().add(existingObservation);
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
+    @DisplayName("Should insert the observation without loading or saving the encounter")
+    void addEncounterObservation_ShouldNotTouchEncounterObservations() {
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(1L))
+                .thenReturn(Optional.of(1L));
         when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
         patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
-        assertEquals(2, encounter.getObservations().size());
-        assertTrue(encounter.getObservations().contains(existingObservation));
+        assertTrue(encounter.getObservations().isEmpty());
+        verify(encounterRepository, never()).findByIdAndSoftDeleteFalse(anyLong());
+        verify(encounterRepository, never()).save(any());
+        verify(patientRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Should update observation properties correctly")
     void addEncounterObservation_ShouldSetCorrectObservationProperties() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(1L))
+                .thenReturn(Optional.of(1L));
+        when(patientRepository.getReferenceById(1L)).thenReturn(testPatient);
+        when(encounterRepository.getReferenceById(1L)).thenReturn(encounter);
         when(observationRepository.save(any(Observation.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
         patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
         verify(observationRepository)
                 .save(
@@ -474,32 +494,21 @@ class PatientServiceTest {
                                         observation.getCode().equals("BP-001")
                                                 && observation.getValue().equals("120/80")
                                                 && observation.getPatient().equals(testPatient)
+                                                && observation.getEncounter().equals(encounter)
                                                 && observation.getEffectiveDateTime() != null));
     }
 
     @Test
     @DisplayName("Should format date and time when adding observation ")
     void addEncounterObservation_ShouldCallFormatDateTime() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
+        when(encounterRepository.findPatientIdByIdAndSoftDeleteFalse(1L))
+                .thenReturn(Optional.of(1L));
         when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
         patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
         verify(observationRepository)
                 .save(argThat(observation -> observation.getEffectiveDateTime() != null));
     }
 
-    @Test
-    @DisplayName("Should save observation before adding to an encounter")
-    void addEncounterObservation_ShouldSaveObservationBeforeAddingToEncounter() {
-        when(encounterRepository.findByIdAndSoftDeleteFalse(1L)).thenReturn(Optional.of(encounter));
-        when(observationRepository.save(any(Observation.class))).thenReturn(testObservation);
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(encounter);
-        patientServiceImpl.addEncounterObservation(1L, testObservationWrapper);
-        var inOrder = inOrder(observationRepository, encounterRepository);
-        inOrder.verify(observationRepository).save(any(Observation.class));
-        inOrder.verify(encounterRepository).save(encounter);
-    }
-
     @Test
     @DisplayName("Should throw exception when retrieving non-existent patient")
     void retrievePatient_WhenNotFound_ShouldThrowException() {
@@ -520,24 +529,23 @@ class PatientServiceTest {
                         .birthDate("1990-01-01")
                         .build();
 
-        Patient softDeletedPatient =
-                Patient.builder()
-                        .identifier(12345678L)
-                        .gender(Gender.MALE)
-                        .familyName("Old")
-                        .givenName("Patient")
-                        .build();
-        ReflectionTestUtils.setField(softDeletedPatient, "id", 1L);
-        ReflectionTestUtils.setField(softDeletedPatient, "softDelete", true);
-
-        when(patientRepository.findByIdentifier(12345678L))
-                .thenReturn(Optional.of(softDeletedPatient));
-        when(patientRepository.save(any(Patient.class))).thenReturn(softDeletedPatient);
+        PatientView restored =
+                new PatientView(
+                        1L,
+                        12345678L,
+                        "Patient",
+                        "Restored",
+                        Gender.FEMALE,
+                        LocalDate.of(1990, 1, 1),
+                        1L,
+                        Instant.now());
+        when(patientRepository.upsert(any(Patient.class)))
+                .thenReturn(new PatientUpsert(BulkRowStatus.RESTORED, restored));
 
         UniversalResponse response = patientServiceImpl.createPatient(patientWrapper);
         assertEquals(HttpStatus.OK.value(), response.status());
         assertEquals("Patient restored and updated successfully", response.message());
-        assertFalse(softDeletedPatient.getSoftDelete());
+        assertEquals(restored, response.data());
     }
 
     @Test
@@ -588,7 +596,6 @@ class PatientServiceTest {
 
         when(encounterRepository.findByIdAndSoftDeleteFalse(1L))
                 .thenReturn(Optional.of(openEncounter));
-        when(encounterRepository.save(any(Encounter.class))).thenReturn(openEncounter);
 
         String endTime =
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
@@ -597,36 +604,7 @@ class PatientServiceTest {
         assertEquals(HttpStatus.OK.value(), response.status());
         assertEquals("Encounter ended successfully", response.message());
         assertNotNull(response.data());
-        verify(encounterRepository).save(any(Encounter.class));
-    }
-
-    @Test
-    @DisplayName("Should throw exception for null date format")
-    void formatDate_WhenNull_ShouldThrowException() {
-        assertThrows(
-                PatientException.class,
-                () ->
-                        ReflectionTestUtils.invokeMethod(
-                                patientServiceImpl, "formatDate", (String) null));
-    }
-
-    @Test
-    @DisplayName("Should throw exception for invalid date format")
-    void formatDate_WhenInvalidFormat_ShouldThrowException() {
-        assertThrows(
-                PatientException.class,
-                () ->
-                        ReflectionTestUtils.invokeMethod(
-                                patientServiceImpl, "formatDate", "invalid-date"));
-    }
-
-    @Test
-    @DisplayName("Should throw exception for invalid datetime format")
-    void formatDateTime_WhenInvalidFormat_ShouldThrowException() {
-        assertThrows(
-                PatientException.class,
-                () ->
-                        ReflectionTestUtils.invokeMethod(
-                                patientServiceImpl, "formatDateTime", "invalid-datetime"));
+        assertNotNull(openEncounter.getEnd());
+        verify(encounterRepository, never()).save(any(Encounter.class));
     }
 }
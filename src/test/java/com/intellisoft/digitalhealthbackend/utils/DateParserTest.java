@@ -0,0 +1,91 @@
+package com.intellisoft.digitalhealthbackend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.intellisoft.digitalhealthbackend.exceptions.PatientException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class DateParserTest {
+
+    @Test
+    @DisplayName("Parses a date, ignoring surrounding whitespace")
+    void parseDate_WhenValid_ShouldReturnLocalDate() {
+        assertEquals(LocalDate.of(1996, 8, 9), DateParser.parseDate("1996-08-09"));
+        assertEquals(LocalDate.of(2024, 2, 29), DateParser.parseDate(" 2024-02-29 "));
+    }
+
+    @Test
+    @DisplayName("Should throw exception for null date format")
+    void parseDate_WhenNull_ShouldThrowException() {
+        PatientException exception =
+                assertThrows(PatientException.class, () -> DateParser.parseDate(null));
+        assertEquals("Date cannot be null or empty", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw exception for invalid date format")
+    void parseDate_WhenInvalidFormat_ShouldThrowException() {
+        PatientException exception =
+                assertThrows(PatientException.class, () -> DateParser.parseDate("invalid-date"));
+        assertEquals(
+                "Invalid date format. Expected: yyyy-MM-dd (e.g., 1996-08-09), but got:"
+                        + " invalid-date",
+                exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "",
+                "1996-8-9",
+                "1996/08/09",
+                "1996-13-01",
+                "1996-00-10",
+                "1996-04-31",
+                "2023-02-29",
+                "1996-08-09x",
+                "96-08-09",
+                "1996-08-0a"
+            })
+    @DisplayName("Rejects malformed or impossible dates without throwing")
+    void tryParseDate_WhenInvalid_ShouldReturnNull(String value) {
+        assertNull(DateParser.tryParseDate(value));
+    }
+
+    @Test
+    @DisplayName("Parses a date time")
+    void parseDateTime_WhenValid_ShouldReturnLocalDateTime() {
+        assertEquals(
+                LocalDateTime.of(2025, 11, 1, 10, 30, 15),
+                DateParser.parseDateTime("2025-11-01 10:30:15"));
+    }
+
+    @Test
+    @DisplayName("Should throw exception for invalid datetime format")
+    void parseDateTime_WhenInvalidFormat_ShouldThrowException() {
+        assertThrows(PatientException.class, () -> DateParser.parseDateTime("invalid-datetime"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "2025-11-01T10:30:15",
+                "2025-11-01 24:00:00",
+                "2025-11-01 10:60:00",
+                "2025-11-01 10:30:60",
+                "2025-11-01 10:30",
+                "2025-11-31 10:30:15",
+                "2025-11-01 10-30-15"
+            })
+    @DisplayName("Rejects malformed or impossible date times without throwing")
+    void tryParseDateTime_WhenInvalid_ShouldReturnNull(String value) {
+        assertNull(DateParser.tryParseDateTime(value));
+    }
+}